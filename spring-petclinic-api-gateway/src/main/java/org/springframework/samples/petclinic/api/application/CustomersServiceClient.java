@@ -15,27 +15,48 @@
  */
 package org.springframework.samples.petclinic.api.application;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.samples.petclinic.api.dto.OwnerDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
 /**
  * @author Maciej Szarlinski
  */
 @Component
 public class CustomersServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
 
-    public CustomersServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    private final SingleFlight<Integer, OwnerDetails> getOwnerCalls;
+
+    public CustomersServiceClient(@Qualifier("customersServiceWebClient") WebClient webClient, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.getOwnerCalls = new SingleFlight<>("customers-service.getOwner", meterRegistry);
     }
 
     public Mono<OwnerDetails> getOwner(final int ownerId) {
-        return webClientBuilder.build().get()
+        return getOwnerCalls.execute(ownerId, () -> webClient.get()
             .uri("http://customers-service/owners/{ownerId}", ownerId)
             .retrieve()
-            .bodyToMono(OwnerDetails.class);
+            .bodyToMono(OwnerDetails.class));
+    }
+
+    public Flux<OwnerDetails> getOwners(final List<Integer> ownerIds) {
+        return webClient.get()
+            .uri("http://customers-service/owners?ids={ownerIds}", joinIds(ownerIds))
+            .retrieve()
+            .bodyToFlux(OwnerDetails.class);
+    }
+
+    private String joinIds(List<Integer> ownerIds) {
+        return ownerIds.stream().map(Object::toString).collect(joining(","));
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.application;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-based cache of assembled {@link OwnerDetails}. Concurrent requests for the same owner
+ * share a single in-flight load. Assemblies that could not be completed (e.g. visits-service was down)
+ * are handed to the waiting callers but not retained.
+ */
+public class OwnerDetailsCache {
+
+    private final AsyncCache<Integer, Loaded> cache;
+
+    public OwnerDetailsCache(long maximumSize, Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new LoadedExpiry(timeToLive.toNanos()))
+            .buildAsync();
+    }
+
+    public Mono<OwnerDetails> get(int ownerId, Function<Integer, Mono<Loaded>> loader) {
+        return Mono.fromFuture(() -> cache.get(ownerId, (id, executor) -> loader.apply(id).toFuture()), true)
+            .map(Loaded::ownerDetails);
+    }
+
+    public void evict(int ownerId) {
+        cache.synchronous().invalidate(ownerId);
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Result of an owner details assembly; only complete assemblies are kept until their TTL expires.
+     */
+    public record Loaded(OwnerDetails ownerDetails, boolean complete) {
+    }
+
+    private record LoadedExpiry(long timeToLiveNanos) implements Expiry<Integer, Loaded> {
+
+        @Override
+        public long expireAfterCreate(Integer ownerId, Loaded loaded, long currentTime) {
+            return loaded.complete() ? timeToLiveNanos : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer ownerId, Loaded loaded, long currentTime, long currentDuration) {
+            return expireAfterCreate(ownerId, loaded, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Integer ownerId, Loaded loaded, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
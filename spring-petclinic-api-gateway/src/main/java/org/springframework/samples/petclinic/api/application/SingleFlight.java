@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical calls share one downstream exchange: while a call for a key is in flight,
+ * further callers for the same key subscribe to it instead of issuing their own request.
+ * Shared results must therefore be treated as immutable by the callers.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter coalesced;
+
+    SingleFlight(String call, MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("petclinic.gateway.calls.coalesced")
+            .description("Downstream calls served by an identical call already in flight")
+            .tag("call", call)
+            .register(meterRegistry);
+    }
+
+    Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                Mono<V> mono = call.get()
+                    .doFinally(signal -> inFlight.remove(k, created.get()))
+                    .share();
+                created.set(mono);
+                return mono;
+            });
+            if (shared != created.get()) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+}
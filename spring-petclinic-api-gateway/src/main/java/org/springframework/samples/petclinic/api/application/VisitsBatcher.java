@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.application;
+
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
+import org.springframework.samples.petclinic.api.dto.Visits;
+import org.springframework.samples.petclinic.api.system.ServiceClientsProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * DataLoader-style batching of visits lookups: pet ids requested by concurrent callers within a short
+ * window are fetched with one request, and each caller receives only the visits of its own pets.
+ * <p>
+ * Lookups are buffered while the batches in flight are at their limit. Should the pipeline fail, it is
+ * subscribed to again, and a lookup it lost is fetched on its own once its timeout expires.
+ */
+class VisitsBatcher {
+
+    private final Function<List<Integer>, Mono<Visits>> fetchVisits;
+
+    private final Duration lookupTimeout;
+
+    // replaced on each subscription of the pipeline; serializes concurrent callers without spinning
+    private volatile FluxSink<PendingLookup> pendingLookups;
+
+    VisitsBatcher(ServiceClientsProperties.Batching batching, Function<List<Integer>, Mono<Visits>> fetchVisits) {
+        this.fetchVisits = fetchVisits;
+        this.lookupTimeout = batching.lookupTimeout();
+        Flux.<PendingLookup>create(sink -> pendingLookups = sink)
+            .bufferTimeout(batching.maxBatchSize(), batching.window(), true)
+            .flatMap(this::dispatch, batching.maxConcurrentBatches())
+            .retry()
+            .subscribe();
+    }
+
+    Mono<Visits> getVisitsForPets(List<Integer> petIds) {
+        return Mono.defer(() -> {
+            PendingLookup lookup = new PendingLookup(petIds, Sinks.one());
+            pendingLookups.next(lookup);
+            return lookup.result().asMono()
+                .timeout(lookupTimeout, Mono.defer(() -> fetchVisits.apply(petIds)));
+        });
+    }
+
+    private Mono<Void> dispatch(List<PendingLookup> batch) {
+        Set<Integer> petIds = new LinkedHashSet<>();
+        batch.forEach(lookup -> petIds.addAll(lookup.petIds()));
+        return Mono.defer(() -> fetchVisits.apply(new ArrayList<>(petIds)))
+            .defaultIfEmpty(new Visits())
+            .doOnNext(visits -> split(batch, visits))
+            .doOnError(e -> batch.forEach(lookup -> lookup.result().tryEmitError(e)))
+            .onErrorResume(e -> Mono.empty())
+            .then();
+    }
+
+    private static void split(List<PendingLookup> batch, Visits visits) {
+        Map<Integer, List<VisitDetails>> visitsByPetId = new HashMap<>();
+        for (VisitDetails visit : visits.items()) {
+            visitsByPetId.computeIfAbsent(visit.petId(), petId -> new ArrayList<>()).add(visit);
+        }
+        for (PendingLookup lookup : batch) {
+            List<VisitDetails> items = new ArrayList<>();
+            lookup.petIds().forEach(petId -> items.addAll(visitsByPetId.getOrDefault(petId, List.of())));
+            lookup.result().tryEmitValue(new Visits(items));
+        }
+    }
+
+    private record PendingLookup(List<Integer> petIds, Sinks.One<Visits> result) {
+    }
+}
@@ -15,7 +15,10 @@
  */
 package org.springframework.samples.petclinic.api.application;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.samples.petclinic.api.dto.Visits;
+import org.springframework.samples.petclinic.api.system.ServiceClientsProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -33,16 +36,51 @@ public class VisitsServiceClient {
     // Could be changed for testing purpose
     private String hostname = "http://visits-service/";
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
 
-    public VisitsServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    private final SingleFlight<List<Integer>, Visits> getVisitsForPetsCalls;
+
+    private final SingleFlight<List<Integer>, Visits> getVisitSummariesForPetsCalls;
+
+    private final VisitsBatcher visitsBatcher;
+
+    private final int recentVisitsPerPet;
+
+    public VisitsServiceClient(@Qualifier("visitsServiceWebClient") WebClient webClient, MeterRegistry meterRegistry,
+                               ServiceClientsProperties properties) {
+        this.webClient = webClient;
+        this.getVisitsForPetsCalls = new SingleFlight<>("visits-service.getVisitsForPets", meterRegistry);
+        this.getVisitSummariesForPetsCalls = new SingleFlight<>("visits-service.getVisitSummariesForPets", meterRegistry);
+        this.recentVisitsPerPet = properties.recentVisitsPerPet();
+        ServiceClientsProperties.Batching batching = properties.visitsBatching();
+        this.visitsBatcher = batching.enabled()
+            ? new VisitsBatcher(batching, this::fetchVisitsForPets)
+            : null;
     }
 
+    /**
+     * The most recent visits of the given pets, up to {@code gateway.clients.recent-visits-per-pet} per pet.
+     */
     public Mono<Visits> getVisitsForPets(final List<Integer> petIds) {
-        return webClientBuilder.build()
-            .get()
-            .uri(hostname + "pets/visits?petId={petId}", joinIds(petIds))
+        return getVisitsForPetsCalls.execute(List.copyOf(petIds), () -> visitsBatcher != null
+            ? visitsBatcher.getVisitsForPets(petIds)
+            : fetchVisitsForPets(petIds));
+    }
+
+    /**
+     * Visits of the given pets without their description, served by visits-service from the
+     * (pet_id, visit_date) index only.
+     */
+    public Mono<Visits> getVisitSummariesForPets(final List<Integer> petIds) {
+        return getVisitSummariesForPetsCalls.execute(List.copyOf(petIds), () -> webClient.get()
+            .uri(hostname + "pets/visits/summary?petId={petId}", joinIds(petIds))
+            .retrieve()
+            .bodyToMono(Visits.class));
+    }
+
+    private Mono<Visits> fetchVisitsForPets(final List<Integer> petIds) {
+        return webClient.get()
+            .uri(hostname + "pets/visits?petId={petId}&limitPerPet={limitPerPet}", joinIds(petIds), recentVisitsPerPet)
             .retrieve()
             .bodyToMono(Visits.class);
     }
@@ -18,16 +18,24 @@ package org.springframework.samples.petclinic.api.boundary.web;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.samples.petclinic.api.application.CustomersServiceClient;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
 import org.springframework.samples.petclinic.api.application.VisitsServiceClient;
 import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.samples.petclinic.api.dto.PetDetails;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
 import org.springframework.samples.petclinic.api.dto.Visits;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -43,38 +51,85 @@ public class ApiGatewayController {
 
     private final ReactiveCircuitBreakerFactory cbFactory;
 
+    private final OwnerDetailsCache ownerDetailsCache;
+
     public ApiGatewayController(CustomersServiceClient customersServiceClient,
                                 VisitsServiceClient visitsServiceClient,
-                                ReactiveCircuitBreakerFactory cbFactory) {
+                                ReactiveCircuitBreakerFactory cbFactory,
+                                OwnerDetailsCache ownerDetailsCache) {
         this.customersServiceClient = customersServiceClient;
         this.visitsServiceClient = visitsServiceClient;
         this.cbFactory = cbFactory;
+        this.ownerDetailsCache = ownerDetailsCache;
     }
 
     @GetMapping(value = "owners/{ownerId}")
     public Mono<OwnerDetails> getOwnerDetails(final @PathVariable int ownerId) {
+        return ownerDetailsCache.get(ownerId, this::loadOwnerDetails);
+    }
+
+    private Mono<OwnerDetailsCache.Loaded> loadOwnerDetails(int ownerId) {
         return customersServiceClient.getOwner(ownerId)
             .flatMap(owner ->
                 visitsServiceClient.getVisitsForPets(owner.getPetIds())
+                    .map(visits -> new OwnerDetailsCache.Loaded(addVisitsToOwner(owner).apply(visits), true))
                     .transform(it -> {
                         ReactiveCircuitBreaker cb = cbFactory.create("getOwnerDetails");
-                        return cb.run(it, throwable -> emptyVisitsForPets());
+                        return cb.run(it, throwable -> Mono.just(new OwnerDetailsCache.Loaded(owner, false)));
                     })
-                    .map(addVisitsToOwner(owner))
             );
+    }
 
+    /**
+     * Aggregates several owners with a single customers-service call and a single visits-service call,
+     * instead of two calls per owner. Meant for list screens: visits are returned without their description.
+     */
+    @GetMapping(value = "owners", params = "ids")
+    public Flux<OwnerDetails> getOwnersDetails(final @RequestParam("ids") List<Integer> ownerIds) {
+        return customersServiceClient.getOwners(ownerIds)
+            .collectList()
+            .flatMapMany(owners -> {
+                List<Integer> petIds = owners.stream()
+                    .flatMap(owner -> owner.getPetIds().stream())
+                    .toList();
+                if (petIds.isEmpty()) {
+                    return Flux.fromIterable(owners);
+                }
+                return visitsServiceClient.getVisitSummariesForPets(petIds)
+                    .transform(it -> {
+                        ReactiveCircuitBreaker cb = cbFactory.create("getOwnersDetails");
+                        return cb.run(it, throwable -> emptyVisitsForPets());
+                    })
+                    .flatMapIterable(visits -> addVisitsToOwners(owners, visits));
+            });
     }
 
     private Function<Visits, OwnerDetails> addVisitsToOwner(OwnerDetails owner) {
-        return visits -> {
-            owner.pets()
-                .forEach(pet -> pet.visits()
-                    .addAll(visits.items().stream()
-                        .filter(v -> v.petId() == pet.id())
-                        .toList())
-                );
-            return owner;
-        };
+        return visits -> addVisitsToOwners(List.of(owner), visits).get(0);
+    }
+
+    /**
+     * Returns copies of the given owners with visits attached to their pets. Visits are indexed by pet id
+     * once, so the join is linear in the number of pets plus visits rather than their product. The owners
+     * are not modified since downstream responses may be shared between concurrent requests.
+     */
+    static List<OwnerDetails> addVisitsToOwners(List<OwnerDetails> owners, Visits visits) {
+        Map<Integer, List<VisitDetails>> visitsByPetId = new HashMap<>();
+        for (VisitDetails visit : visits.items()) {
+            visitsByPetId.computeIfAbsent(visit.petId(), petId -> new ArrayList<>()).add(visit);
+        }
+        List<OwnerDetails> ownersWithVisits = new ArrayList<>(owners.size());
+        for (OwnerDetails owner : owners) {
+            List<PetDetails> pets = new ArrayList<>(owner.pets().size());
+            for (PetDetails pet : owner.pets()) {
+                List<VisitDetails> petVisits = new ArrayList<>(pet.visits());
+                petVisits.addAll(visitsByPetId.getOrDefault(pet.id(), List.of()));
+                pets.add(new PetDetails(pet.id(), pet.name(), pet.birthDate(), pet.type(), petVisits));
+            }
+            ownersWithVisits.add(new OwnerDetails(owner.id(), owner.firstName(), owner.lastName(),
+                owner.address(), owner.city(), owner.telephone(), pets));
+        }
+        return ownersWithVisits;
     }
 
     private Mono<Visits> emptyVisitsForPets() {
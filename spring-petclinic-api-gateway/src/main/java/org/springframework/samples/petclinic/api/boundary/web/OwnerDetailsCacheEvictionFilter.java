@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Evicts cached owner details once a proxied write to an owner, its pets or their visits has completed. A bulk
+ * visit import may touch the pets of any owner, so it evicts all owner details.
+ */
+@Component
+public class OwnerDetailsCacheEvictionFilter implements GlobalFilter, Ordered {
+
+    private static final List<PathPattern> OWNER_WRITE_PATTERNS = List.of(
+        PathPatternParser.defaultInstance.parse("/api/customer/owners/{ownerId}/**"),
+        PathPatternParser.defaultInstance.parse("/api/visit/owners/{ownerId}/pets/*/visits"));
+
+    private static final PathPattern BULK_VISITS_PATTERN =
+        PathPatternParser.defaultInstance.parse("/api/visit/pets/visits/bulk");
+
+    private final OwnerDetailsCache ownerDetailsCache;
+
+    public OwnerDetailsCacheEvictionFilter(OwnerDetailsCache ownerDetailsCache) {
+        this.ownerDetailsCache = ownerDetailsCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!HttpMethod.PUT.equals(method) && !HttpMethod.POST.equals(method)) {
+            return chain.filter(exchange);
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (BULK_VISITS_PATTERN.matches(path)) {
+            return chain.filter(exchange).doFinally(signal -> ownerDetailsCache.evictAll());
+        }
+        for (PathPattern pattern : OWNER_WRITE_PATTERNS) {
+            PathPattern.PathMatchInfo match = pattern.matchAndExtract(path);
+            if (match != null) {
+                String ownerId = match.getUriVariables().get("ownerId");
+                return chain.filter(exchange).doFinally(signal -> evict(ownerId));
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    private void evict(String ownerId) {
+        int id;
+        try {
+            id = Integer.parseInt(ownerId);
+        } catch (NumberFormatException e) {
+            id = 0;
+        }
+        if (id > 0) {
+            ownerDetailsCache.evict(id);
+        } else {
+            // visits-service ignores the owner segment, so clients may send a placeholder instead of the real id
+            ownerDetailsCache.evictAll();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
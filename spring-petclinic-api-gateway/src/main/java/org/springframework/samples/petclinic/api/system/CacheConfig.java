@@ -0,0 +1,32 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.system;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(GatewayCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public OwnerDetailsCache ownerDetailsCache(GatewayCacheProperties properties) {
+        GatewayCacheProperties.OwnerDetails ownerDetails = properties.ownerDetails();
+        return new OwnerDetailsCache(ownerDetails.maximumSize(), ownerDetails.ttl());
+    }
+}
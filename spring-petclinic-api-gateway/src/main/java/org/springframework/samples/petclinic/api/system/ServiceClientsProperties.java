@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.system;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and batching settings of the clients used to call the downstream services.
+ */
+@ConfigurationProperties(prefix = "gateway.clients")
+public record ServiceClientsProperties(
+    @DefaultValue Pool customers,
+    @DefaultValue Pool visits,
+    @DefaultValue Batching visitsBatching,
+    @DefaultValue("10") int recentVisitsPerPet
+) {
+    public record Pool(
+        @DefaultValue("100") int maxConnections,
+        @DefaultValue("200") int pendingAcquireMaxCount,
+        @DefaultValue("5s") Duration pendingAcquireTimeout,
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue("30s") Duration evictInBackground
+    ) {
+    }
+
+    /**
+     * Collects the pet ids of concurrent visits lookups for up to {@code window}, or until
+     * {@code maxBatchSize} lookups are pending, and sends them as a single visits-service request. At most
+     * {@code maxConcurrentBatches} requests are in flight; a lookup not answered within {@code lookupTimeout} is
+     * sent on its own.
+     */
+    public record Batching(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5ms") Duration window,
+        @DefaultValue("50") int maxBatchSize,
+        @DefaultValue("8") int maxConcurrentBatches,
+        @DefaultValue("5s") Duration lookupTimeout
+    ) {
+    }
+}
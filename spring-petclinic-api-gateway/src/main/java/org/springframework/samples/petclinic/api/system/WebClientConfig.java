@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.api.system;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Prebuilt, load-balanced WebClients for the downstream services, each backed by its own
+ * Reactor Netty connection pool. Pool metrics are published to Micrometer under
+ * {@code reactor.netty.connection.provider.*}, tagged with the pool name.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ServiceClientsProperties.class)
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider customersServiceConnectionProvider(ServiceClientsProperties properties) {
+        return connectionProvider("customers-service", properties.customers());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider visitsServiceConnectionProvider(ServiceClientsProperties properties) {
+        return connectionProvider("visits-service", properties.visits());
+    }
+
+    @Bean
+    public WebClient customersServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                               @Qualifier("customersServiceConnectionProvider") ConnectionProvider connectionProvider) {
+        return webClient(loadBalancedWebClientBuilder, connectionProvider);
+    }
+
+    @Bean
+    public WebClient visitsServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                            @Qualifier("visitsServiceConnectionProvider") ConnectionProvider connectionProvider) {
+        return webClient(loadBalancedWebClientBuilder, connectionProvider);
+    }
+
+    private static ConnectionProvider connectionProvider(String name, ServiceClientsProperties.Pool pool) {
+        return ConnectionProvider.builder(name)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .evictInBackground(pool.evictInBackground())
+            .metrics(true)
+            .build();
+    }
+
+    private static WebClient webClient(WebClient.Builder builder, ConnectionProvider connectionProvider) {
+        return builder.clone()
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+            .build();
+    }
+}
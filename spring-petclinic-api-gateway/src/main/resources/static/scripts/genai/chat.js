@@ -3,13 +3,18 @@ function appendMessage(message, type) {
     const messageElement = document.createElement('div');
     messageElement.classList.add('chat-bubble', type);
 
+    chatMessages.appendChild(messageElement);
+    renderMessage(messageElement, message);
+    return messageElement;
+}
+
+function renderMessage(messageElement, message) {
     // Convert Markdown to HTML
     const htmlContent = marked.parse(message); // Use marked.parse() for newer versions
     messageElement.innerHTML = htmlContent;
 
-    chatMessages.appendChild(messageElement);
-
     // Scroll to the bottom of the chatbox to show the latest message
+    const chatMessages = document.getElementById('chatbox-messages');
     chatMessages.scrollTop = chatMessages.scrollHeight;
 }
 
@@ -38,18 +43,22 @@ function sendMessage() {
     // Display user message in the chatbox
     appendMessage(query, 'user');
 
-    // Send the message to the backend
-    fetch('/api/genai/chatclient', {
+    // Send the message to the backend, which streams the answer back as Server-Sent Events
+    fetch('/api/genai/chatclient/stream', {
         method: 'POST',
         headers: {
             'Content-Type': 'application/json',
+            'Accept': 'text/event-stream',
+            'X-Conversation-Id': conversationId(),
         },
         body: JSON.stringify(query),
     })
-        .then(response => response.text())
-        .then(responseText => {
-            // Display the response from the server in the chatbox
-            appendMessage(responseText, 'bot');
+        .then(response => {
+            if (!response.ok || !response.body) {
+                throw new Error('Unexpected response status ' + response.status);
+            }
+            // Display the response in the chatbox as it arrives
+            return readEvents(response.body, appendMessage('', 'bot'));
         })
         .catch(error => {
             console.error('Error:', error);
@@ -58,6 +67,48 @@ function sendMessage() {
         });
 }
 
+// Render the text of each event into messageElement, until the done or error event
+async function readEvents(body, messageElement) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    let text = '';
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += value.replace(/\r\n?/g, '\n');
+        // Events are separated by a blank line
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const event = parseEvent(buffer.substring(0, end));
+            buffer = buffer.substring(end + 2);
+            if (event.name === 'done') {
+                return;
+            }
+            if (event.name === 'error') {
+                text += (text ? '\n\n' : '') + event.data.text;
+            } else if (event.data) {
+                text += event.data.text;
+            }
+            renderMessage(messageElement, text);
+        }
+    }
+}
+
+function parseEvent(block) {
+    let name = 'message';
+    const data = [];
+    for (const line of block.split('\n')) {
+        if (line.startsWith('event:')) {
+            name = line.substring('event:'.length).trim();
+        } else if (line.startsWith('data:')) {
+            data.push(line.substring('data:'.length).replace(/^ /, ''));
+        }
+    }
+    return { name: name, data: data.length ? JSON.parse(data.join('\n')) : null };
+}
+
 function handleKeyPress(event) {
     if (event.key === "Enter") {
         event.preventDefault(); // Prevents adding a newline
@@ -65,6 +116,19 @@ function handleKeyPress(event) {
     }
 }
 
+// Id under which the server remembers this chat, kept as long as its messages
+function conversationId() {
+    let id = localStorage.getItem('chatConversationId');
+    if (!id) {
+        // randomUUID is only available to pages served over HTTPS or from localhost
+        id = window.crypto && crypto.randomUUID
+            ? crypto.randomUUID()
+            : Date.now().toString(36) + '-' + Math.random().toString(36).substring(2);
+        localStorage.setItem('chatConversationId', id);
+    }
+    return id;
+}
+
 // Save chat messages to localStorage
 function saveChatMessages() {
     const messages = document.getElementById('chatbox-messages').innerHTML;
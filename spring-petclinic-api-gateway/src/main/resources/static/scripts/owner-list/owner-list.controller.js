@@ -3,8 +3,50 @@
 angular.module('ownerList')
     .controller('OwnerListController', ['$http', function ($http) {
         var self = this;
+        var pageSize = 20;
+        var nextPage = 0;
 
-        $http.get('api/customer/owners').then(function (resp) {
-            self.owners = resp.data;
-        });
+        self.owners = [];
+        self.hasMore = false;
+        self.query = '';
+
+        function searchParams(query) {
+            // digits are looked up as a telephone prefix, anything else as a last name prefix
+            return /^\d+$/.test(query) ? {telephone: query} : {lastName: query};
+        }
+
+        function loadPage() {
+            var query = self.query.trim();
+            if (!query) {
+                var lastId = self.owners.length ? self.owners[self.owners.length - 1].id : 0;
+                return $http.get('api/customer/owners', {params: {after: lastId, size: pageSize}}).then(function (resp) {
+                    return {owners: resp.data, last: resp.data.length < pageSize};
+                });
+            }
+            var params = angular.extend(searchParams(query), {page: nextPage, size: pageSize});
+            return $http.get('api/customer/owners/search', {params: params}).then(function (resp) {
+                return {owners: resp.data.content, last: resp.data.page.number + 1 >= resp.data.page.totalPages};
+            });
+        }
+
+        self.loadMore = function () {
+            var query = self.query;
+            loadPage().then(function (result) {
+                if (query !== self.query) {
+                    return;
+                }
+                self.owners = self.owners.concat(result.owners);
+                self.hasMore = !result.last;
+                nextPage++;
+            });
+        };
+
+        self.search = function () {
+            self.owners = [];
+            self.hasMore = false;
+            nextPage = 0;
+            self.loadMore();
+        };
+
+        self.loadMore();
     }]);
@@ -4,7 +4,23 @@ angular.module('vetList')
     .controller('VetListController', ['$http', function ($http) {
         var self = this;
 
+        self.specialty = '';
+
         $http.get('api/vet/vets').then(function (resp) {
             self.vetList = resp.data;
+            var names = {};
+            resp.data.forEach(function (vet) {
+                vet.specialties.forEach(function (specialty) {
+                    names[specialty.name] = true;
+                });
+            });
+            self.specialties = Object.keys(names).sort();
         });
+
+        self.filterBySpecialty = function () {
+            var url = self.specialty ? 'api/vet/vets?specialty=' + encodeURIComponent(self.specialty) : 'api/vet/vets';
+            $http.get(url).then(function (resp) {
+                self.vetList = resp.data;
+            });
+        };
     }]);
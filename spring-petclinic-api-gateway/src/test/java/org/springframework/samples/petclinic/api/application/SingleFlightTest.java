@@ -0,0 +1,52 @@
+package org.springframework.samples.petclinic.api.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    @Test
+    void concurrentCallsForSameKeyShareOneExchange() {
+        Sinks.One<String> response = Sinks.one();
+
+        CompletableFuture<String> both = Mono.zip(call(1, response), call(1, response), (a, b) -> a + b).toFuture();
+        response.tryEmitValue("x");
+
+        assertEquals("xx", both.join());
+        assertEquals(1, exchanges.get());
+        assertEquals(1.0, meterRegistry.get("petclinic.gateway.calls.coalesced").counter().count());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        assertEquals("y", call(1, Mono.just("y")).block());
+        assertEquals("z", call(1, Mono.just("z")).block());
+
+        assertEquals(2, exchanges.get());
+        assertEquals(0.0, meterRegistry.get("petclinic.gateway.calls.coalesced").counter().count());
+    }
+
+    private Mono<String> call(int key, Sinks.One<String> response) {
+        return call(key, response.asMono());
+    }
+
+    private Mono<String> call(int key, Mono<String> response) {
+        return singleFlight.execute(key, () -> {
+            exchanges.incrementAndGet();
+            return response;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package org.springframework.samples.petclinic.api.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
+import org.springframework.samples.petclinic.api.dto.Visits;
+import org.springframework.samples.petclinic.api.system.ServiceClientsProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VisitsBatcherTest {
+
+    @Test
+    void lookupsBeyondConcurrentBatchesAreQueuedNotLost() {
+        VisitsBatcher batcher = new VisitsBatcher(
+            new ServiceClientsProperties.Batching(true, Duration.ofMillis(5), 1, 2, Duration.ofSeconds(5)),
+            petIds -> Mono.just(visitsOf(petIds)).delayElement(Duration.ofMillis(50)));
+
+        List<Visits> results = Flux.range(1, 20)
+            .flatMap(petId -> batcher.getVisitsForPets(List.of(petId)).subscribeOn(Schedulers.parallel()))
+            .collectList()
+            .block(Duration.ofSeconds(4));
+
+        assertEquals(20, results.size());
+        results.forEach(visits -> assertEquals(1, visits.items().size()));
+        assertEquals(visitsOf(List.of(42)), batcher.getVisitsForPets(List.of(42)).block(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void lookupNotAnsweredInTimeIsFetchedOnItsOwn() {
+        AtomicInteger fetches = new AtomicInteger();
+        VisitsBatcher batcher = new VisitsBatcher(
+            new ServiceClientsProperties.Batching(true, Duration.ofMillis(5), 50, 1, Duration.ofMillis(100)),
+            petIds -> fetches.getAndIncrement() == 0 ? Mono.never() : Mono.just(visitsOf(petIds)));
+
+        assertEquals(visitsOf(List.of(7)), batcher.getVisitsForPets(List.of(7)).block(Duration.ofSeconds(1)));
+        assertEquals(2, fetches.get());
+    }
+
+    private static Visits visitsOf(List<Integer> petIds) {
+        return new Visits(petIds.stream().map(petId -> new VisitDetails(petId, petId, "2024-01-01", "check-up")).toList());
+    }
+}
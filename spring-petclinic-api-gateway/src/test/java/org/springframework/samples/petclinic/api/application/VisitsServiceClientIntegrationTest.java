@@ -1,15 +1,19 @@
 package org.springframework.samples.petclinic.api.application;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.samples.petclinic.api.dto.Visits;
+import org.springframework.samples.petclinic.api.system.ServiceClientsProperties;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.function.Consumer;
 
@@ -27,8 +31,7 @@ class VisitsServiceClientIntegrationTest {
     @BeforeEach
     void setUp() {
         server = new MockWebServer();
-        visitsServiceClient = new VisitsServiceClient(WebClient.builder());
-        visitsServiceClient.setHostname(server.url("/").toString());
+        visitsServiceClient = visitsServiceClient(new ServiceClientsProperties.Batching(false, Duration.ofMillis(5), 50, 8, Duration.ofSeconds(5)));
     }
 
     @AfterEach
@@ -47,6 +50,30 @@ class VisitsServiceClientIntegrationTest {
         assertVisitDescriptionEquals(visits.block(), PET_ID,"test visit");
     }
 
+    @Test
+    void getVisitsForPets_batchesConcurrentLookups() {
+        visitsServiceClient = visitsServiceClient(new ServiceClientsProperties.Batching(true, Duration.ofMillis(50), 50, 8, Duration.ofSeconds(5)));
+        prepareResponse(response -> response
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"items\":[{\"id\":5,\"date\":\"2018-11-15\",\"description\":\"first pet visit\",\"petId\":1}," +
+                "{\"id\":6,\"date\":\"2018-11-16\",\"description\":\"second pet visit\",\"petId\":2}]}"));
+
+        Mono<Visits> firstPetVisits = visitsServiceClient.getVisitsForPets(Collections.singletonList(1));
+        Mono<Visits> secondPetVisits = visitsServiceClient.getVisitsForPets(Collections.singletonList(2));
+        Tuple2<Visits, Visits> visits = Mono.zip(firstPetVisits, secondPetVisits).block();
+
+        assertVisitDescriptionEquals(visits.getT1(), 1, "first pet visit");
+        assertVisitDescriptionEquals(visits.getT2(), 2, "second pet visit");
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private VisitsServiceClient visitsServiceClient(ServiceClientsProperties.Batching batching) {
+        VisitsServiceClient client = new VisitsServiceClient(WebClient.builder().build(), new SimpleMeterRegistry(),
+            new ServiceClientsProperties(null, null, batching, 10));
+        client.setHostname(server.url("/").toString());
+        return client;
+    }
+
 
     private void assertVisitDescriptionEquals(Visits visits, int petId, String description) {
         assertEquals(1, visits.items().size());
@@ -0,0 +1,94 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.samples.petclinic.api.dto.OwnerDetails;
+import org.springframework.samples.petclinic.api.dto.PetDetails;
+import org.springframework.samples.petclinic.api.dto.VisitDetails;
+import org.springframework.samples.petclinic.api.dto.Visits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-pet filtering merge of visits into an owner with the indexed join used by
+ * {@link ApiGatewayController}. Run with the test classpath, e.g. from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddVisitsToOwnerBenchmark {
+
+    private static final int VISITS_PER_PET = 10;
+
+    @Param({"10", "100", "1000"})
+    private int pets;
+
+    private OwnerDetails owner;
+
+    private Visits visits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<PetDetails> petDetails = new ArrayList<>(pets);
+        List<VisitDetails> visitDetails = new ArrayList<>(pets * VISITS_PER_PET);
+        for (int petId = 1; petId <= pets; petId++) {
+            petDetails.add(PetDetails.PetDetailsBuilder.aPetDetails().id(petId).name("pet" + petId).build());
+            for (int v = 0; v < VISITS_PER_PET; v++) {
+                visitDetails.add(new VisitDetails(petId * VISITS_PER_PET + v, petId, "2024-01-01", "visit"));
+            }
+        }
+        owner = OwnerDetails.OwnerDetailsBuilder.anOwnerDetails().id(1).pets(petDetails).build();
+        visits = new Visits(visitDetails);
+    }
+
+    @Benchmark
+    public OwnerDetails filterPerPet() {
+        clearVisits();
+        owner.pets()
+            .forEach(pet -> pet.visits()
+                .addAll(visits.items().stream()
+                    .filter(v -> v.petId() == pet.id())
+                    .toList())
+            );
+        return owner;
+    }
+
+    @Benchmark
+    public List<OwnerDetails> indexedJoin() {
+        clearVisits();
+        return ApiGatewayController.addVisitsToOwners(List.of(owner), visits);
+    }
+
+    /**
+     * Both merges append to the pets' visit lists, which are emptied at the start of each invocation rather than
+     * rebuilt by an invocation-level setup, whose overhead would dominate measurements of a few microseconds.
+     */
+    private void clearVisits() {
+        owner.pets().forEach(pet -> pet.visits().clear());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AddVisitsToOwnerBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.api.boundary.web;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -10,9 +11,12 @@ import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4
 import org.springframework.context.annotation.Import;
 import org.springframework.samples.petclinic.api.application.CustomersServiceClient;
 import org.springframework.samples.petclinic.api.application.VisitsServiceClient;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
 import org.springframework.samples.petclinic.api.dto.*;
+import org.springframework.samples.petclinic.api.system.CacheConfig;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.ConnectException;
@@ -22,7 +26,7 @@ import java.util.List;
 
 @ExtendWith(SpringExtension.class)
 @WebFluxTest(controllers = ApiGatewayController.class)
-@Import({ReactiveResilience4JAutoConfiguration.class, CircuitBreakerConfiguration.class})
+@Import({ReactiveResilience4JAutoConfiguration.class, CircuitBreakerConfiguration.class, CacheConfig.class})
 class ApiGatewayControllerTest {
 
     @MockBean
@@ -34,6 +38,13 @@ class ApiGatewayControllerTest {
     @Autowired
     private WebTestClient client;
 
+    @Autowired
+    private OwnerDetailsCache ownerDetailsCache;
+
+    @BeforeEach
+    void clearCache() {
+        ownerDetailsCache.evictAll();
+    }
 
     @Test
     void getOwnerDetails_withAvailableVisitsService() {
@@ -64,6 +75,32 @@ class ApiGatewayControllerTest {
             .jsonPath("$.pets[0].visits[0].description").isEqualTo("First visit");
     }
 
+    @Test
+    void getOwnerDetails_servedFromCacheUntilEvicted() {
+        PetDetails cat = PetDetails.PetDetailsBuilder.aPetDetails()
+            .id(20)
+            .name("Garfield")
+            .visits(new ArrayList<>())
+            .build();
+        OwnerDetails owner = OwnerDetails.OwnerDetailsBuilder.anOwnerDetails()
+            .pets(List.of(cat))
+            .build();
+        Mockito
+            .when(customersServiceClient.getOwner(1))
+            .thenReturn(Mono.just(owner));
+        Mockito
+            .when(visitsServiceClient.getVisitsForPets(Collections.singletonList(cat.id())))
+            .thenReturn(Mono.just(new Visits(List.of())));
+
+        client.get().uri("/api/gateway/owners/1").exchange().expectStatus().isOk();
+        client.get().uri("/api/gateway/owners/1").exchange().expectStatus().isOk();
+        Mockito.verify(customersServiceClient, Mockito.times(1)).getOwner(1);
+
+        ownerDetailsCache.evict(1);
+        client.get().uri("/api/gateway/owners/1").exchange().expectStatus().isOk();
+        Mockito.verify(customersServiceClient, Mockito.times(2)).getOwner(1);
+    }
+
     /**
      * Test Resilience4j fallback method
      */
@@ -94,4 +131,46 @@ class ApiGatewayControllerTest {
             .jsonPath("$.pets[0].visits").isEmpty();
     }
 
+    @Test
+    void getOwnersDetails_withSingleVisitsCall() {
+        PetDetails cat = PetDetails.PetDetailsBuilder.aPetDetails()
+            .id(20)
+            .name("Garfield")
+            .visits(new ArrayList<>())
+            .build();
+        PetDetails dog = PetDetails.PetDetailsBuilder.aPetDetails()
+            .id(21)
+            .name("Odie")
+            .visits(new ArrayList<>())
+            .build();
+        OwnerDetails jon = OwnerDetails.OwnerDetailsBuilder.anOwnerDetails()
+            .id(1)
+            .pets(List.of(cat))
+            .build();
+        OwnerDetails liz = OwnerDetails.OwnerDetailsBuilder.anOwnerDetails()
+            .id(2)
+            .pets(List.of(dog))
+            .build();
+        Mockito
+            .when(customersServiceClient.getOwners(List.of(1, 2)))
+            .thenReturn(Flux.just(jon, liz));
+
+        Visits visits = new Visits(List.of(
+            new VisitDetails(300, cat.id(), "2024-03-01", null),
+            new VisitDetails(301, dog.id(), "2024-03-02", null)));
+        Mockito
+            .when(visitsServiceClient.getVisitSummariesForPets(List.of(cat.id(), dog.id())))
+            .thenReturn(Mono.just(visits));
+
+        client.get()
+            .uri("/api/gateway/owners?ids=1,2")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].pets[0].visits[0].date").isEqualTo("2024-03-01")
+            .jsonPath("$[1].pets[0].visits[0].date").isEqualTo("2024-03-02");
+
+        Mockito.verify(visitsServiceClient, Mockito.times(1)).getVisitSummariesForPets(Mockito.anyList());
+    }
+
 }
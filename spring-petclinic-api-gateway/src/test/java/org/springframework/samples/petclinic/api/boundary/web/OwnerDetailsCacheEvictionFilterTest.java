@@ -0,0 +1,46 @@
+package org.springframework.samples.petclinic.api.boundary.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.samples.petclinic.api.application.OwnerDetailsCache;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OwnerDetailsCacheEvictionFilterTest {
+
+    private final OwnerDetailsCache ownerDetailsCache = mock(OwnerDetailsCache.class);
+
+    private final OwnerDetailsCacheEvictionFilter filter = new OwnerDetailsCacheEvictionFilter(ownerDetailsCache);
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Test
+    void shouldEvictTheOwnerOfAVisit() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/api/visit/owners/6/pets/7/visits")), chain)
+            .block();
+
+        verify(ownerDetailsCache).evict(6);
+        verify(ownerDetailsCache, never()).evictAll();
+    }
+
+    @Test
+    void shouldEvictAllOwnersAfterABulkImport() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/api/visit/pets/visits/bulk")), chain)
+            .block();
+
+        verify(ownerDetailsCache).evictAll();
+    }
+
+    @Test
+    void shouldNotEvictOnReads() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/visit/pets/visits/bulk")), chain)
+            .block();
+
+        verify(ownerDetailsCache, never()).evictAll();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.customers.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+/**
+ * HTTP caching of the pet types: responses carry a strong ETag computed from their body, conditional requests
+ * whose If-None-Match matches get an empty 304, and browsers may reuse the list for ten minutes.
+ */
+@Configuration
+class WebConfig implements WebMvcConfigurer {
+
+    private static final Duration PET_TYPES_MAX_AGE = Duration.ofMinutes(10);
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.addCacheMapping(CacheControl.maxAge(PET_TYPES_MAX_AGE).cachePublic(), "/petTypes");
+        registry.addInterceptor(interceptor);
+    }
+
+    @Bean
+    FilterRegistrationBean<ShallowEtagHeaderFilter> petTypesEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+            new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        // only the small, static pet types: the filter buffers whole responses to hash them
+        registration.addUrlPatterns("/petTypes");
+        return registration;
+    }
+}
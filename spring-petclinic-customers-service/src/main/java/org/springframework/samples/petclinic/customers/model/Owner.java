@@ -18,6 +18,7 @@ package org.springframework.samples.petclinic.customers.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.beans.support.MutableSortDefinition;
 import org.springframework.beans.support.PropertyComparator;
 import org.springframework.core.style.ToStringCreator;
@@ -63,7 +64,12 @@ public class Owner {
     @Digits(fraction = 0, integer = 12)
     private String telephone;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "owner")
+    /**
+     * Loaded lazily: fetch plans are chosen per use case in {@link OwnerRepository}. Where no fetch plan
+     * applies (e.g. paged listings), pets of the loaded owners are initialized together in batches.
+     */
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "owner")
+    @BatchSize(size = 100)
     private Set<Pet> pets;
 
     protected Set<Pet> getPetsInternal() {
@@ -15,7 +15,20 @@
  */
 package org.springframework.samples.petclinic.customers.model;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant with Spring Data naming
@@ -27,4 +40,43 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Michael Isvy
  * @author Maciej Szarlinski
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> { }
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, JpaSpecificationExecutor<Owner> {
+
+    /**
+     * Retrieve an owner with its pets and their types in a single statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"pets", "pets.type"})
+    Optional<Owner> findById(Integer id);
+
+    /**
+     * Retrieve all owners with their pets and their types in a single statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"pets", "pets.type"})
+    List<Owner> findAll();
+
+    /**
+     * Retrieve the given owners with their pets and their types in a single statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"pets", "pets.type"})
+    List<Owner> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Keyset pagination: retrieve the next owners following the given id, in id order.
+     * Pets are not fetched by join so that the limit applies in the database.
+     */
+    List<Owner> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    /**
+     * Stream all owners in id order, fetching rows from the database in fixed-size chunks.
+     * Must be consumed within a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT owner FROM Owner owner LEFT JOIN FETCH owner.pets pet LEFT JOIN FETCH pet.type ORDER BY owner.id")
+    Stream<Owner> streamAll();
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.customers.model;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Owner search criteria. Each criterion is a prefix match, so it can be answered by the index on its column.
+ */
+public final class OwnerSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private OwnerSpecifications() {
+    }
+
+    public static Specification<Owner> lastNameStartsWith(String prefix) {
+        return startsWith("lastName", prefix);
+    }
+
+    public static Specification<Owner> cityStartsWith(String prefix) {
+        return startsWith("city", prefix);
+    }
+
+    public static Specification<Owner> telephoneStartsWith(String prefix) {
+        return startsWith("telephone", prefix);
+    }
+
+    /**
+     * First or last name starting with the prefix.
+     */
+    public static Specification<Owner> nameStartsWith(String prefix) {
+        return startsWith("firstName", prefix).or(startsWith("lastName", prefix));
+    }
+
+    /**
+     * Owners of at least one pet whose name starts with the prefix. An exists subquery rather than a join,
+     * so that an owner of several matching pets is returned once and paging counts owners.
+     */
+    public static Specification<Owner> petNameStartsWith(String prefix) {
+        String pattern = likePattern(prefix);
+        return (root, query, cb) -> {
+            Subquery<Integer> pets = query.subquery(Integer.class);
+            Root<Pet> pet = pets.from(Pet.class);
+            pets.select(pet.get("id"))
+                .where(cb.equal(pet.get("owner"), root), cb.like(pet.get("name"), pattern, ESCAPE));
+            return cb.exists(pets);
+        };
+    }
+
+    private static Specification<Owner> startsWith(String attribute, String prefix) {
+        String pattern = likePattern(prefix);
+        return (root, query, cb) -> cb.like(root.get(attribute), pattern, ESCAPE);
+    }
+
+    private static String likePattern(String prefix) {
+        return prefix
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_") + "%";
+    }
+}
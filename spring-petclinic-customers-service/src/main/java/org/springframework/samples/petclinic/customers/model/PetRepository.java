@@ -18,6 +18,7 @@ package org.springframework.samples.petclinic.customers.model;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -34,6 +35,13 @@ import org.springframework.data.repository.query.Param;
  */
 public interface PetRepository extends JpaRepository<Pet, Integer> {
 
+    /**
+     * Retrieve a pet with its owner and type in a single statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"owner", "type"})
+    Optional<Pet> findById(Integer id);
+
     /**
      * Retrieve all {@link PetType}s from the data store.
      * @return a Collection of {@link PetType}s.
@@ -20,15 +20,28 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.samples.petclinic.customers.web.mapper.OwnerEntityMapper;
 import org.springframework.samples.petclinic.customers.model.Owner;
 import org.springframework.samples.petclinic.customers.model.OwnerRepository;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.cityStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.nameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.petNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.telephoneStartsWith;
+
 /**
  * @author Juergen Hoeller
  * @author Ken Krebs
@@ -43,6 +56,9 @@ class OwnerResource {
 
     private static final Logger log = LoggerFactory.getLogger(OwnerResource.class);
 
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OwnerRepository ownerRepository;
     private final OwnerEntityMapper ownerEntityMapper;
 
@@ -77,6 +93,63 @@ class OwnerResource {
         return ownerRepository.findAll();
     }
 
+    /**
+     * Read a page of Owners, ordered by id
+     */
+    @GetMapping(params = "page")
+    public PagedModel<Owner> findPage(@RequestParam("page") @Min(0) int page,
+                                      @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return new PagedModel<>(ownerRepository.findAll(PageRequest.of(page, pageSize(size), Sort.by("id"))));
+    }
+
+    /**
+     * Read the Owners following the given id (keyset pagination), ordered by id
+     */
+    @GetMapping(params = "after")
+    public List<Owner> findAfter(@RequestParam("after") @Min(0) int lastOwnerId,
+                                 @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ownerRepository.findByIdGreaterThanOrderByIdAsc(lastOwnerId, Limit.of(pageSize(size)));
+    }
+
+    /**
+     * Search Owners by last name, city, telephone, first or last name and/or pet name prefix, ordered by last name
+     */
+    @GetMapping("/search")
+    public PagedModel<Owner> search(@RequestParam(value = "lastName", required = false) String lastName,
+                                    @RequestParam(value = "city", required = false) String city,
+                                    @RequestParam(value = "telephone", required = false) String telephone,
+                                    @RequestParam(value = "name", required = false) String name,
+                                    @RequestParam(value = "petName", required = false) String petName,
+                                    @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
+                                    @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        List<Specification<Owner>> criteria = new ArrayList<>();
+        if (StringUtils.hasText(lastName)) {
+            criteria.add(lastNameStartsWith(lastName.trim()));
+        }
+        if (StringUtils.hasText(city)) {
+            criteria.add(cityStartsWith(city.trim()));
+        }
+        if (StringUtils.hasText(telephone)) {
+            criteria.add(telephoneStartsWith(telephone.trim()));
+        }
+        if (StringUtils.hasText(name)) {
+            criteria.add(nameStartsWith(name.trim()));
+        }
+        if (StringUtils.hasText(petName)) {
+            criteria.add(petNameStartsWith(petName.trim()));
+        }
+        PageRequest pageRequest = PageRequest.of(page, pageSize(size), Sort.by("lastName", "id"));
+        return new PagedModel<>(ownerRepository.findAll(Specification.allOf(criteria), pageRequest));
+    }
+
+    /**
+     * Read List of Owners by their identifiers
+     */
+    @GetMapping(params = "ids")
+    public List<Owner> findAllById(@RequestParam("ids") List<Integer> ownerIds) {
+        return ownerRepository.findAllById(ownerIds);
+    }
+
     /**
      * Update Owner
      */
@@ -89,4 +162,8 @@ class OwnerResource {
         log.info("Saving owner {}", ownerModel);
         ownerRepository.save(ownerModel);
     }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
@@ -16,7 +16,10 @@ CREATE TABLE owners (
   city       VARCHAR(80),
   telephone  VARCHAR(12)
 );
+CREATE INDEX owners_first_name ON owners (first_name);
 CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_city ON owners (city);
+CREATE INDEX owners_telephone ON owners (telephone);
 
 CREATE TABLE pets (
   id         INTEGER IDENTITY PRIMARY KEY,
@@ -0,0 +1,147 @@
+package org.springframework.samples.petclinic.customers.model;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.cityStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.lastNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.nameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.petNameStartsWith;
+import static org.springframework.samples.petclinic.customers.model.OwnerSpecifications.telephoneStartsWith;
+
+/**
+ * Guards the fetch plan of each owner use case by counting the SQL statements it issues
+ * against the sample data (10 owners, 13 pets).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class OwnerRepositoryTest {
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_shouldUseOneStatement() {
+        Owner owner = ownerRepository.findById(6).orElseThrow();
+
+        assertEquals(2, petsWithTypes(List.of(owner)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_shouldUseOneStatement() {
+        List<Owner> owners = ownerRepository.findAll();
+
+        assertEquals(10, owners.size());
+        assertEquals(13, petsWithTypes(owners));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllById_shouldUseOneStatement() {
+        List<Owner> owners = ownerRepository.findAllById(List.of(3, 6, 10));
+
+        assertEquals(6, petsWithTypes(owners));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdGreaterThan_shouldLoadPetsOfTheWholePageInOneStatement() {
+        List<Owner> owners = ownerRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(5));
+
+        assertEquals(5, owners.size());
+        assertEquals(6, petsWithTypes(owners));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllPaged_shouldLoadPetsOfTheWholePageInOneStatement() {
+        Page<Owner> owners = ownerRepository.findAll(PageRequest.of(1, 5, Sort.by("id")));
+
+        assertEquals(10, owners.getTotalElements());
+        assertEquals(7, petsWithTypes(owners.getContent()));
+        // page content, count and pets of the page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAll_shouldUseOneStatement() {
+        try (Stream<Owner> owners = ownerRepository.streamAll()) {
+            assertEquals(13, petsWithTypes(owners.toList()));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllBySpecification_shouldMatchPrefixes() {
+        PageRequest byLastName = PageRequest.of(0, 20, Sort.by("lastName", "id"));
+
+        assertEquals(List.of("Davis", "Davis"), lastNames(ownerRepository.findAll(lastNameStartsWith("Da"), byLastName)));
+        assertEquals(List.of("Escobito"), lastNames(ownerRepository.findAll(
+            Specification.allOf(cityStartsWith("Madison"), lastNameStartsWith("E")), byLastName)));
+        assertEquals(10, ownerRepository.findAll(telephoneStartsWith("608555"), byLastName).getTotalElements());
+        assertEquals(0, ownerRepository.findAll(lastNameStartsWith("%"), byLastName).getTotalElements());
+    }
+
+    @Test
+    void findAllBySpecification_shouldMatchFirstOrLastNameAndPetName() {
+        PageRequest byLastName = PageRequest.of(0, 20, Sort.by("lastName", "id"));
+
+        assertEquals(List.of("Davis", "Davis", "Schroeder"), lastNames(ownerRepository.findAll(nameStartsWith("Dav"), byLastName)));
+        assertEquals(List.of("Black", "Estaban"), lastNames(ownerRepository.findAll(petNameStartsWith("Luck"), byLastName)));
+        assertEquals(List.of("Coleman"), lastNames(ownerRepository.findAll(
+            Specification.allOf(petNameStartsWith("Sam"), cityStartsWith("Monona")), byLastName)));
+        assertEquals(1, ownerRepository.findAll(petNameStartsWith("Geo"), byLastName).getTotalElements());
+    }
+
+    @Test
+    void findPetById_shouldUseOneStatement() {
+        Pet pet = petRepository.findById(7).orElseThrow();
+
+        assertEquals("Jean", pet.getOwner().getFirstName());
+        assertEquals("cat", pet.getType().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<String> lastNames(Page<Owner> owners) {
+        return owners.map(Owner::getLastName).getContent();
+    }
+
+    private static int petsWithTypes(List<Owner> owners) {
+        return owners.stream()
+            .flatMap(owner -> owner.getPets().stream())
+            .map(pet -> pet.getType().getName())
+            .toList()
+            .size();
+    }
+}
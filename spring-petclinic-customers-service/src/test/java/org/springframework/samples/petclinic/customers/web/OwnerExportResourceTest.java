@@ -0,0 +1,66 @@
+package org.springframework.samples.petclinic.customers.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.customers.model.Owner;
+import org.springframework.samples.petclinic.customers.model.OwnerRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerExportResourceTest {
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OwnerExportResource ownerExportResource;
+
+    @BeforeEach
+    void setUp() {
+        ownerExportResource = new OwnerExportResource(ownerRepository, entityManager, transactionManager, new ObjectMapper());
+    }
+
+    @Test
+    void exportAll_shouldWriteOneLinePerOwnerAndDetachIt() throws IOException {
+        // Arrange
+        Owner owner1 = new Owner();
+        owner1.setLastName("Franklin");
+        Owner owner2 = new Owner();
+        owner2.setLastName("Davis");
+        when(ownerRepository.streamAll()).thenReturn(Stream.of(owner1, owner2));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = ownerExportResource.exportAll();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(OwnerExportResource.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"lastName\":\"Franklin\""));
+        assertTrue(lines[1].contains("\"lastName\":\"Davis\""));
+        verify(entityManager).detach(owner1);
+        verify(entityManager).detach(owner2);
+    }
+}
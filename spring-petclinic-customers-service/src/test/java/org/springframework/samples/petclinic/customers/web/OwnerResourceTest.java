@@ -6,6 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.samples.petclinic.customers.model.Owner;
 import org.springframework.samples.petclinic.customers.model.OwnerRepository;
@@ -150,6 +156,66 @@ class OwnerResourceTest {
         verify(ownerRepository, times(1)).findAll();
     }
 
+    @Test
+    void findPage_shouldReturnRequestedPageOrderedById() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by("id"));
+        when(ownerRepository.findAll(pageRequest)).thenReturn(new PageImpl<>(Arrays.asList(owner1, owner2), pageRequest, 5));
+
+        // Act
+        PagedModel<Owner> result = ownerResource.findPage(1, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(owner1, owner2), result.getContent());
+        assertEquals(5, result.getMetadata().totalElements());
+        assertEquals(3, result.getMetadata().totalPages());
+    }
+
+    @Test
+    void findAfter_shouldCapPageSize() {
+        // Arrange
+        when(ownerRepository.findByIdGreaterThanOrderByIdAsc(10, Limit.of(100))).thenReturn(Arrays.asList(owner1, owner2));
+
+        // Act
+        List<Owner> result = ownerResource.findAfter(10, 10_000);
+
+        // Assert
+        assertEquals(Arrays.asList(owner1, owner2), result);
+        verify(ownerRepository, times(1)).findByIdGreaterThanOrderByIdAsc(10, Limit.of(100));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_shouldCapPageSizeAndOrderByLastName() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(0, 100, Sort.by("lastName", "id"));
+        when(ownerRepository.findAll(any(Specification.class), eq(pageRequest)))
+            .thenReturn(new PageImpl<>(Arrays.asList(owner2), pageRequest, 1));
+
+        // Act
+        PagedModel<Owner> result = ownerResource.search("Dav", null, " ", null, null, 0, 500);
+
+        // Assert
+        assertEquals(Arrays.asList(owner2), result.getContent());
+        verify(ownerRepository, times(1)).findAll(any(Specification.class), eq(pageRequest));
+    }
+
+    @Test
+    void findAllById_shouldReturnRequestedOwners() {
+        // Arrange
+        List<Integer> ownerIds = Arrays.asList(1, 2);
+        List<Owner> owners = Arrays.asList(owner1, owner2);
+        when(ownerRepository.findAllById(ownerIds)).thenReturn(owners);
+
+        // Act
+        List<Owner> result = ownerResource.findAllById(ownerIds);
+
+        // Assert
+        assertEquals(owners, result);
+        verify(ownerRepository, times(1)).findAllById(ownerIds);
+        verify(ownerRepository, never()).findAll();
+    }
+
     @Test
     void updateOwner_shouldUpdateAndSave_whenFound() {
         // Arrange
@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.customers.web;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,6 +59,23 @@ class PetResourceTest {
             .andExpect(jsonPath("$.type.id").value(6));
     }
 
+    @Test
+    void shouldAnswerNotModifiedWhenPetTypesAreUnchanged() throws Exception {
+        PetType petType = new PetType();
+        petType.setId(1);
+        petType.setName("cat");
+        given(petRepository.findPetTypes()).willReturn(List.of(petType));
+
+        String etag = mvc.perform(get("/petTypes").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=600, public"))
+            .andExpect(jsonPath("$[0].name").value("cat"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/petTypes").accept(MediaType.APPLICATION_JSON).header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+    }
+
     private Pet setupPet() {
         Owner owner = new Owner();
         owner.setFirstName("George");
@@ -1,15 +1,21 @@
 package org.springframework.samples.petclinic.genai;
 
-import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.genai.memory.BoundedChatMemory;
+import org.springframework.samples.petclinic.genai.memory.ChatMemoryProperties;
+import org.springframework.samples.petclinic.genai.vectorstore.CachingEmbeddingModel;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.genai.vectorstore.VectorStoreProperties;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * A Configuration class for beans used by the Chat Client.
  *
@@ -19,18 +25,42 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class AIBeanConfiguration {
 
 	@Bean
-	public ChatMemory chatMemory() {
-		return new InMemoryChatMemory();
+	public BoundedChatMemory chatMemory(ChatMemoryProperties properties) {
+		return new BoundedChatMemory(properties);
 	}
 
 	@Bean
-	VectorStore vectorStore(EmbeddingModel embeddingModel) {
-		return new SimpleVectorStore(embeddingModel);
+	VectorStore vectorStore(EmbeddingModel embeddingModel, VectorStoreProperties properties,
+			MeterRegistry meterRegistry) {
+		VectorStoreProperties.QueryCache queryCache = properties.queryCache();
+		CachingEmbeddingModel cachingEmbeddingModel = new CachingEmbeddingModel(embeddingModel,
+				queryCache.maximumSize(), queryCache.file());
+		cachingEmbeddingModel.bindTo(meterRegistry);
+		VectorStoreProperties.Hnsw hnsw = properties.hnsw();
+		return new HnswVectorStore(cachingEmbeddingModel, hnsw.maxConnections(), hnsw.efConstruction(),
+				hnsw.efSearch());
 	}
 	
+    /**
+     * Client of the petclinic services, resolved through the service registry. It is built from its own
+     * prototype builder, so the builder Spring AI uses to reach the LLM provider stays without the load
+     * balancer, and the provider's default headers never reach the petclinic services.
+     */
+    @Bean
+    public WebClient petclinicWebClient(WebClient.Builder builder, LoadBalancedExchangeFilterFunction loadBalancer) {
+        return builder.filter(loadBalancer).build();
+    }
+
+    /**
+     * Hands response bodies over to bounded elastic threads. Spring AI invokes the LLM functions while consuming
+     * the streamed answer, and the functions wait for the petclinic services: they must not do so on a Netty
+     * event loop.
+     */
     @Bean
-    @LoadBalanced
-    public WebClient.Builder loadBalancedWebClientBuilder() {
-        return WebClient.builder();
+    WebClientCustomizer responsesOffEventLoopCustomizer() {
+        return builder -> builder.filter((request, next) -> next.exchange(request)
+            .map(response -> response.mutate()
+                .body(body -> body.publishOn(Schedulers.boundedElastic()))
+                .build()));
     }
 }
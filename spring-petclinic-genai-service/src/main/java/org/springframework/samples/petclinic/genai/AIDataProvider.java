@@ -1,22 +1,33 @@
 package org.springframework.samples.petclinic.genai;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.samples.petclinic.genai.dto.OwnerDetails;
+import org.springframework.samples.petclinic.genai.dto.OwnerPage;
 import org.springframework.samples.petclinic.genai.dto.PetDetails;
+import org.springframework.samples.petclinic.genai.dto.Vet;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 /**
  * Functions that are invoked by the LLM will use this bean to query the system of record
  * for information such as listing owners and vets, or adding pets to an owner.
+ * The calls are reactive, the functions await them through {@link ToolCalls}.
  *
  * @author Oded Shopen
  */
@@ -25,26 +36,72 @@ public class AIDataProvider {
 
 	private final VectorStore vectorStore;
     private final String ownersHostname = "http://customers-service/";
+    private final String vetsHostname = "http://vets-service/";
 
     private final WebClient webClient;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int maxResults;
+
+    private final int tokenBudget;
 
-	public AIDataProvider(WebClient.Builder webClientBuilder, VectorStore vectorStore) {
-		this.webClient = webClientBuilder.build();
+	public AIDataProvider(WebClient petclinicWebClient, VectorStore vectorStore, ToolCallProperties properties) {
+		this.webClient = petclinicWebClient;
 		this.vectorStore = vectorStore;
+		this.maxResults = properties.maxResults();
+		this.tokenBudget = properties.tokenBudget();
 	}
 
-	public OwnersResponse getAllOwners() {
-		return new OwnersResponse(webClient
+	/**
+	 * The owners matching the query, filtered by the customers-service search rather than here, so that only
+	 * the owners the model asked about are transferred and put into its prompt.
+	 */
+	public Mono<OwnersResponse> findOwners(OwnerQuery query) {
+		int limit = query.limit() == null || query.limit() < 1 ? maxResults : Math.min(query.limit(), maxResults);
+		return webClient
 	            .get()
-	            .uri(ownersHostname + "owners")
+	            .uri(ownersHostname + "owners/search?name={name}&city={city}&petName={petName}&size={size}",
+	                    Objects.toString(query.name(), ""), Objects.toString(query.city(), ""),
+	                    Objects.toString(query.petName(), ""), limit)
 	            .retrieve()
-	            .bodyToMono(new ParameterizedTypeReference<List<OwnerDetails>>() {})
-	            .block());
+	            .bodyToMono(OwnerPage.class)
+	            .flatMap(page -> Mono.fromCallable(() -> withinTokenBudget(page)));
 	}
 
-	public VetResponse getVets(VetRequest request) throws JsonProcessingException {
-		ObjectMapper objectMapper = new ObjectMapper();
+	/**
+	 * The owners of {@code page} that fit into the token budget, estimating a token per 4 characters of JSON.
+	 * The first owner is kept even when it alone exceeds the budget, so that a match is never hidden.
+	 */
+	OwnersResponse withinTokenBudget(OwnerPage page) throws JsonProcessingException {
+		List<OwnerDetails> owners = new ArrayList<>();
+		int tokens = 0;
+		for (OwnerDetails owner : page.content()) {
+			tokens += (objectMapper.writeValueAsString(owner).length() + 3) / 4;
+			if (tokens > tokenBudget && !owners.isEmpty()) {
+				break;
+			}
+			owners.add(owner);
+		}
+		long totalMatches = page.page() != null ? page.page().totalElements() : owners.size();
+		return new OwnersResponse(owners, totalMatches, owners.size() < totalMatches);
+	}
+
+	public Mono<VetResponse> getVets(VetRequest request) {
+		Vet vet = request.vet();
+		if (vet != null && vet.firstName() == null && vet.lastName() == null
+				&& vet.specialties() != null && !vet.specialties().isEmpty()) {
+			// a question about specialties only: answer exactly from the vets-service specialty index
+			return Flux.fromIterable(vet.specialties())
+				.concatMap(specialty -> getVetsBySpecialty(specialty.name()))
+				.collect(LinkedHashSet<Vet>::new, Set::addAll)
+				.flatMap(vets -> Mono.fromCallable(() -> new VetResponse(toJson(vets))));
+		}
+		// the similarity search embeds the question through a blocking call to the embedding model
+		return Mono.fromCallable(() -> searchVets(request));
+	}
+
+	private VetResponse searchVets(VetRequest request) throws JsonProcessingException {
 		String vetAsJson = objectMapper.writeValueAsString(request.vet());
 
 		SearchRequest sr = SearchRequest.from(SearchRequest.defaults()).withQuery(vetAsJson).withTopK(20);
@@ -58,20 +115,38 @@ public class AIDataProvider {
 		return new VetResponse(results);
 	}
 
-	public AddedPetResponse addPetToOwner(AddPetRequest request) {
-		return new AddedPetResponse(webClient
+	private List<String> toJson(Collection<Vet> vets) throws JsonProcessingException {
+		List<String> results = new ArrayList<>(vets.size());
+		for (Vet vet : vets) {
+			results.add(objectMapper.writeValueAsString(vet));
+		}
+		return results;
+	}
+
+	private Mono<List<Vet>> getVetsBySpecialty(String specialty) {
+		return webClient
+	            .get()
+	            .uri(vetsHostname + "vets?specialty={specialty}", specialty)
+	            .retrieve()
+	            .bodyToMono(new ParameterizedTypeReference<List<Vet>>() {});
+	}
+
+	public Mono<AddedPetResponse> addPetToOwner(AddPetRequest request) {
+		return webClient
 	            .post()
 	            .uri(ownersHostname + "owners/"+request.ownerId()+"/pets")
 	            .bodyValue(request.pet())
-	            .retrieve().bodyToMono(PetDetails.class).block());
+	            .retrieve().bodyToMono(PetDetails.class)
+	            .map(AddedPetResponse::new);
 	}
 
-	public OwnerResponse addOwnerToPetclinic(OwnerRequest ownerRequest) {
-		return new OwnerResponse(webClient
+	public Mono<OwnerResponse> addOwnerToPetclinic(OwnerRequest ownerRequest) {
+		return webClient
 	            .post()
 	            .uri(ownersHostname + "owners")
 	            .bodyValue(ownerRequest)
-	            .retrieve().bodyToMono(OwnerDetails.class).block());
+	            .retrieve().bodyToMono(OwnerDetails.class)
+	            .map(OwnerResponse::new);
 	}
 
 }
@@ -3,8 +3,6 @@ package org.springframework.samples.petclinic.genai;
 import java.util.List;
 import java.util.function.Function;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
@@ -13,7 +11,7 @@ import org.springframework.samples.petclinic.genai.dto.PetDetails;
 import org.springframework.samples.petclinic.genai.dto.PetRequest;
 import org.springframework.samples.petclinic.genai.dto.Vet;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
@@ -22,49 +20,44 @@ import jakarta.validation.constraints.NotBlank;
  * This class defines the @Bean functions that the LLM provider will invoke when it
  * requires more Information on a given topic. The currently available functions enable
  * the LLM to get the list of owners and their pets, get information about the
- * veterinarians, and add a pet to an owner.
+ * veterinarians, and add a pet to an owner. Their calls to the petclinic services go through
+ * {@link ToolCalls}, which bounds their time and number.
  *
  * @author Oded Shopen
  */
 @Configuration
 class AIFunctionConfiguration {
 
-    private static final Logger LOG = LoggerFactory.getLogger(AIFunctionConfiguration.class);
-
 	// The @Description annotation helps the model understand when to call the function
 	@Bean
-	@Description("List the owners that the pet clinic has")
-	public Function<OwnerRequest, OwnersResponse> listOwners(AIDataProvider petclinicAiProvider) {
-		return request -> petclinicAiProvider.getAllOwners();
+	@Description("List the owners that the pet clinic has, with their pets. Filter by the owner's first or last name, "
+			+ "city or pet name whenever the question mentions one. Only the first matching owners are returned: "
+			+ "when truncated is true, totalMatches tells how many there are and a narrower filter finds the others")
+	public Function<OwnerQuery, OwnersResponse> listOwners(AIDataProvider petclinicAiProvider, ToolCalls toolCalls) {
+		return query -> toolCalls.await("listOwners", petclinicAiProvider.findOwners(query));
 	}
 
 	@Bean
 	@Description("Add a new pet owner to the pet clinic. " + "The Owner must include a first name and a last name "
 			+ "as two separate words, " + "plus an address and a 10-digit phone number")
-	public Function<OwnerRequest, OwnerResponse> addOwnerToPetclinic(AIDataProvider petclinicAiDataProvider) {
-		return petclinicAiDataProvider::addOwnerToPetclinic;
+	public Function<OwnerRequest, OwnerResponse> addOwnerToPetclinic(AIDataProvider petclinicAiDataProvider,
+			ToolCalls toolCalls) {
+		return request -> toolCalls.awaitWrite("addOwnerToPetclinic", petclinicAiDataProvider.addOwnerToPetclinic(request));
 	}
 
 	@Bean
 	@Description("List the veterinarians that the pet clinic has")
-	public Function<VetRequest, VetResponse> listVets(AIDataProvider petclinicAiProvider) {
-		return request -> {
-			try {
-				return petclinicAiProvider.getVets(request);
-			}
-			catch (JsonProcessingException e) {
-                LOG.error("Error processing JSON in the listVets function", e);
-				return null;
-			}
-		};
+	public Function<VetRequest, VetResponse> listVets(AIDataProvider petclinicAiProvider, ToolCalls toolCalls) {
+		return request -> toolCalls.await("listVets", petclinicAiProvider.getVets(request));
 	}
 
 	@Bean
 	@Description("Add a pet with the specified petTypeId, " + "to an owner identified by the ownerId. "
 			+ "The allowed Pet types IDs are only: " + "1 - cat" + "2 - dog" + "3 - lizard" + "4 - snake" + "5 - bird"
 			+ "6 - hamster")
-	public Function<AddPetRequest, AddedPetResponse> addPetToOwner(AIDataProvider petclinicAiProvider) {
-		return petclinicAiProvider::addPetToOwner;
+	public Function<AddPetRequest, AddedPetResponse> addPetToOwner(AIDataProvider petclinicAiProvider,
+			ToolCalls toolCalls) {
+		return request -> toolCalls.awaitWrite("addPetToOwner", petclinicAiProvider.addPetToOwner(request));
 	}
 
 }
@@ -72,7 +65,14 @@ class AIFunctionConfiguration {
 record AddPetRequest(PetRequest pet, Integer ownerId) {
 }
 
-record OwnersResponse(List<OwnerDetails> owners) {
+record OwnerQuery(
+		@JsonPropertyDescription("Start of the owner's first or last name") String name,
+		@JsonPropertyDescription("Start of the owner's city") String city,
+		@JsonPropertyDescription("Start of the name of one of the owner's pets") String petName,
+		@JsonPropertyDescription("Maximum number of owners to return") Integer limit) {
+}
+
+record OwnersResponse(List<OwnerDetails> owners, long totalMatches, boolean truncated) {
 }
 
 record OwnerResponse(OwnerDetails owner) {
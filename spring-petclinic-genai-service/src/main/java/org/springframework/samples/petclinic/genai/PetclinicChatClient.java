@@ -1,18 +1,29 @@
 package org.springframework.samples.petclinic.genai;
 
+import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY;
 import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.DEFAULT_CHAT_MEMORY_CONVERSATION_ID;
 
+import java.util.UUID;
+import java.util.regex.Pattern;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * This REST controller is being invoked by the in order to interact with the LLM
  *
@@ -24,6 +35,12 @@ public class PetclinicChatClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(PetclinicChatClient.class);
 
+    private static final String UNAVAILABLE = "Chat is currently unavailable. Please try again later.";
+
+    static final String CONVERSATION_ID_HEADER = "X-Conversation-Id";
+
+    private static final Pattern CONVERSATION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
 	// ChatModel is the primary interfaces for interacting with an LLM
 	// it is a request/response interface that implements the ModelModel
 	// interface. Make suer to visit the source code of the ChatModel and
@@ -43,9 +60,11 @@ public class PetclinicChatClient {
                           When dealing with vets, if the user is unsure about the returned results, explain that there may be additional data that was not returned.
                           Only if the user is asking about the total number of all vets, answer that there are a lot and ask for some additional criteria.
                           For owners, pets or visits - provide the correct data.
+                          When looking for owners, pass the names or city the user mentions as filters rather than listing all owners.
                           """)
 				.defaultAdvisors(
-						// Chat memory helps us keep context when using the chatbot for up to 10 previous messages.
+						// Chat memory helps us keep context when using the chatbot for up to 10 previous messages;
+						// each request names its conversation, the default id is never used.
 						new MessageChatMemoryAdvisor(chatMemory, DEFAULT_CHAT_MEMORY_CONVERSATION_ID, 10), // CHAT MEMORY
 						new SimpleLoggerAdvisor()
 						)
@@ -54,22 +73,59 @@ public class PetclinicChatClient {
   }
 
   @PostMapping("/chatclient")
-  public String exchange(@RequestBody String query) {
-	  try {
-		  //All chatbot messages go through this endpoint
-		  //and are passed to the LLM
-		  return
+  public Mono<String> exchange(@RequestBody String query,
+		  @RequestHeader(name = CONVERSATION_ID_HEADER, required = false) String conversationId) {
+	  //All chatbot messages go through this endpoint
+	  //and are passed to the LLM. The call blocks until the answer is complete,
+	  //so it runs on a bounded elastic thread rather than on the event loop
+	  return Mono.fromCallable(() ->
 		  this.chatClient
 		  .prompt()
 	      .user(
 	          u ->
 	              u.text(query)
 	              )
+	      .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, conversationId(conversationId)))
 	      .call()
-	      .content();
-	  } catch (Exception exception) {
-          LOG.error("Error processing chat message", exception);
- 	      return "Chat is currently unavailable. Please try again later.";
-	  }
+	      .content())
+		  .subscribeOn(Schedulers.boundedElastic())
+		  .onErrorResume(exception -> {
+			  LOG.error("Error processing chat message", exception);
+			  return Mono.just(UNAVAILABLE);
+		  });
+  }
+
+  /**
+   * Streams the answer as Server-Sent Events while the LLM produces it: one unnamed event per chunk of text,
+   * then a {@code done} event, or an {@code error} event carrying a message for the user. The text is wrapped
+   * in JSON so that the leading spaces and line breaks of chunks survive the SSE framing.
+   */
+  @PostMapping(value = "/chatclient/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<ChatChunk>> stream(@RequestBody String query,
+		  @RequestHeader(name = CONVERSATION_ID_HEADER, required = false) String conversationId) {
+	  return this.chatClient
+		  .prompt()
+		  .user(u -> u.text(query))
+		  .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, conversationId(conversationId)))
+		  .stream()
+		  .content()
+		  .map(text -> ServerSentEvent.builder(new ChatChunk(text)).build())
+		  .concatWith(Flux.just(ServerSentEvent.<ChatChunk>builder().event("done").build()))
+		  .onErrorResume(exception -> {
+			  LOG.error("Error streaming chat message", exception);
+			  return Flux.just(ServerSentEvent.builder(new ChatChunk(UNAVAILABLE)).event("error").build());
+		  });
+  }
+
+  /**
+   * The conversation whose history is remembered, sent by the client. A request without a valid id gets a
+   * conversation of its own, rather than sharing a history with every other such request.
+   */
+  private static String conversationId(String conversationId) {
+	  return conversationId != null && CONVERSATION_ID.matcher(conversationId).matches()
+			  ? conversationId : UUID.randomUUID().toString();
+  }
+
+  public record ChatChunk(String text) {
   }
 }
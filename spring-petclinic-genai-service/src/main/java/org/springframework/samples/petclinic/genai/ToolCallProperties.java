@@ -0,0 +1,26 @@
+package org.springframework.samples.petclinic.genai;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of the calls that LLM functions make to the petclinic services, and of the results they hand back to
+ * the model.
+ *
+ * @param timeout time a call may take, including its wait for a free slot; a write waits this long for a slot only
+ * @param writeTimeout time a write may take once it has a slot
+ * @param maxConcurrentCalls calls in flight at once, across all conversations
+ * @param maxResults records a search function returns at most, whatever the model asks for
+ * @param tokenBudget estimated tokens the records returned by a search function may take in the prompt
+ */
+@ConfigurationProperties(prefix = "genai.tools")
+public record ToolCallProperties(
+	@DefaultValue("5s") Duration timeout,
+	@DefaultValue("30s") Duration writeTimeout,
+	@DefaultValue("20") int maxConcurrentCalls,
+	@DefaultValue("20") int maxResults,
+	@DefaultValue("2000") int tokenBudget
+) {
+}
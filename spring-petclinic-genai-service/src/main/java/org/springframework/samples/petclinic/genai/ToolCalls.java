@@ -0,0 +1,91 @@
+package org.springframework.samples.petclinic.genai;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Awaits the calls that LLM functions make to the petclinic services. Spring AI invokes functions synchronously,
+ * so the result of a reactive call has to be waited for, but never longer than the configured timeout, which
+ * includes the wait for a free slot. At most a configured number of calls are in flight: a function that finds
+ * no free slot within the timeout fails instead of queuing more threads behind a slow service.
+ * <p>
+ * Writes are not idempotent, so they are not cut short by the wait for a slot: once they have one, they get a
+ * separate, longer timeout. A write that fails without a response from the service may still have been applied,
+ * which its error tells the model.
+ */
+@Component
+public class ToolCalls {
+
+	private final Duration timeout;
+
+	private final Duration writeTimeout;
+
+	private final Semaphore permits;
+
+	public ToolCalls(ToolCallProperties properties) {
+		this.timeout = properties.timeout();
+		this.writeTimeout = properties.writeTimeout();
+		this.permits = new Semaphore(properties.maxConcurrentCalls());
+	}
+
+	/**
+	 * The result of the read {@code call}, made on behalf of {@code function}.
+	 * @throws IllegalStateException if the call fails, times out or finds no free slot
+	 */
+	public <T> T await(String function, Mono<T> call) {
+		long deadline = System.nanoTime() + this.timeout.toNanos();
+		acquire(function);
+		try {
+			// the wait for a slot counts against the timeout
+			return call.timeout(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))).block();
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalStateException(function + " failed", Exceptions.unwrap(ex));
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+	/**
+	 * The result of the write {@code call}, made on behalf of {@code function}.
+	 * @throws IllegalStateException if the call fails, times out or finds no free slot
+	 */
+	public <T> T awaitWrite(String function, Mono<T> call) {
+		acquire(function);
+		try {
+			return call.timeout(this.writeTimeout).block();
+		}
+		catch (RuntimeException ex) {
+			Throwable cause = Exceptions.unwrap(ex);
+			if (cause instanceof WebClientResponseException) {
+				throw new IllegalStateException(function + " failed", cause);
+			}
+			throw new IllegalStateException(
+					function + " failed, but the request may have been applied; list owners before retrying", cause);
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+	private void acquire(String function) {
+		try {
+			if (!this.permits.tryAcquire(this.timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new IllegalStateException("Too many concurrent calls, " + function + " was rejected");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(function + " was interrupted", ex);
+		}
+	}
+
+}
@@ -7,7 +7,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
 import org.springframework.ai.reader.JsonReader;
-import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.event.EventListener;
@@ -16,12 +15,16 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.samples.petclinic.genai.dto.Vet;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.genai.vectorstore.VectorStoreFileConverter;
+import org.springframework.samples.petclinic.genai.vectorstore.VectorStoreProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
@@ -40,28 +43,57 @@ public class VectorStoreController {
 
 	private final VectorStore vectorStore;
     private final WebClient webClient;
+    private final VectorStoreProperties properties;
 
-    public VectorStoreController(VectorStore vectorStore, WebClient.Builder webClientBuilder) {
-		this.webClient = webClientBuilder.build();
+    public VectorStoreController(VectorStore vectorStore, WebClient petclinicWebClient,
+                                 VectorStoreProperties properties) {
+		this.webClient = petclinicWebClient;
 		this.vectorStore = vectorStore;
+		this.properties = properties;
 	}
 
 	@EventListener
 	public void loadVetDataToVectorStoreOnStartup(ApplicationStartedEvent event) throws IOException {
+		// A store saved by a previous run is mapped as is, without parsing or rebuilding the index
+		Path file = this.properties.file();
+		if (file != null && Files.exists(file) && this.vectorStore instanceof HnswVectorStore hnswVectorStore) {
+			try {
+				hnswVectorStore.load(file);
+				return;
+			}
+			catch (IOException ex) {
+				logger.warn("Could not load the vector store from {}, rebuilding it", file, ex);
+			}
+		}
+
 		Resource resource = new ClassPathResource("vectorstore.json");
 
 		// Check if file exists
-		if (resource.exists()) {
+		if (resource.exists() && this.vectorStore instanceof HnswVectorStore hnswVectorStore) {
 			// In order to save on AI credits, use a pre-embedded database that was saved
 			// to
-			// disk based on the current data in the h2 data.sql file
-			File file = resource.getFile();
-			((SimpleVectorStore) this.vectorStore).load(file);
+			// disk based on the current data in the h2 data.sql file. It is converted
+			// to the binary format once, then mapped
+			Path converted = file != null ? file : createTempFile();
+			if (file == null) {
+				converted.toFile().deleteOnExit();
+			}
+			try (InputStream json = resource.getInputStream()) {
+				VectorStoreFileConverter.convert(json, converted, this.properties.hnsw());
+			}
+			hnswVectorStore.load(converted);
 			logger.info("vector store loaded from existing vectorstore.json file in the classpath");
 			return;
 		}
 
-		// If vectorstore.json is deleted, the data will be loaded on startup every time.
+		// If vectorstore.json is deleted, the data is embedded by the first synchronization,
+		// which runs in the background once the application is ready
+		if (this.properties.sync().enabled()) {
+			logger.info("vector store will be loaded by the vets synchronization");
+			return;
+		}
+
+		// Without synchronization, the data will be loaded on startup every time.
 		// Warning - this can be costly in terms of credits used with the AI provider.
 		// Fetches all Vet entites and creates a document per vet
         String vetsHostname = "http://vets-service/";
@@ -80,17 +112,27 @@ public class VectorStoreController {
 		// add the documents to the vector store
 		this.vectorStore.add(documents);
 
-		if (vectorStore instanceof SimpleVectorStore) {
-            // java:S5443 Sonar rule: Using publicly writable directories is security-sensitive
-            FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
-            File file = Files.createTempFile("vectorstore", ".json", attr).toFile();
-			((SimpleVectorStore) this.vectorStore).save(file);
-			logger.info("vector store contents written to {}", file.getAbsolutePath());
-		}
+		save();
 
 		logger.info("vector store loaded with {} documents", documents.size());
 	}
 
+	private void save() throws IOException {
+		if (this.vectorStore instanceof HnswVectorStore hnswVectorStore) {
+			Path file = this.properties.file();
+			if (file != null) {
+				hnswVectorStore.save(file);
+				logger.info("vector store contents written to {}", file.toAbsolutePath());
+			}
+		}
+	}
+
+	private static Path createTempFile() throws IOException {
+        // java:S5443 Sonar rule: Using publicly writable directories is security-sensitive
+        FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+        return Files.createTempFile("vectorstore", ".hnsw", attr);
+	}
+
 	public Resource convertListToJsonResource(List<Vet> vets) {
 		ObjectMapper objectMapper = new ObjectMapper();
 		try {
@@ -0,0 +1,171 @@
+package org.springframework.samples.petclinic.genai;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.genai.vectorstore.VectorStoreProperties;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Keeps the vet documents of the vector store in line with the vets-service. Every interval, starting once the
+ * application is ready, the vets are fetched and the SHA-256 of each vet's content is compared with the
+ * {@value #CONTENT_HASH} metadata of the stored documents, or with the hash of their content for documents
+ * stored without it. Only new and changed vets are embedded, in batches, and documents matching no vet any
+ * more are deleted. Document content is the vet's JSON as a map, as {@code JsonReader} renders it, so the
+ * pre-embedded documents of {@code vectorstore.json} are matched without embedding them again.
+ */
+@Component
+public class VetVectorStoreSync {
+
+	static final String VET_ID = "vetId";
+
+	static final String CONTENT_HASH = "contentHash";
+
+	private static final Logger logger = LoggerFactory.getLogger(VetVectorStoreSync.class);
+
+	private static final String VETS_URL = "http://vets-service/vets";
+
+	private final VectorStore vectorStore;
+
+	private final EmbeddingModel embeddingModel;
+
+	private final WebClient webClient;
+
+	private final VectorStoreProperties properties;
+
+	private final TaskScheduler taskScheduler;
+
+	public VetVectorStoreSync(VectorStore vectorStore, EmbeddingModel embeddingModel, WebClient petclinicWebClient,
+			VectorStoreProperties properties, TaskScheduler taskScheduler) {
+		this.vectorStore = vectorStore;
+		this.embeddingModel = embeddingModel;
+		this.webClient = petclinicWebClient;
+		this.properties = properties;
+		this.taskScheduler = taskScheduler;
+	}
+
+	@EventListener
+	public void scheduleOnStartup(ApplicationReadyEvent event) {
+		if (this.properties.sync().enabled() && this.vectorStore instanceof HnswVectorStore) {
+			this.taskScheduler.scheduleWithFixedDelay(this::syncQuietly, Instant.now(),
+					this.properties.sync().interval());
+		}
+	}
+
+	private void syncQuietly() {
+		try {
+			sync();
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Could not synchronize the vector store with the vets-service, retrying in {}",
+					this.properties.sync().interval(), ex);
+		}
+	}
+
+	/**
+	 * Embed and store the new and changed vets, and delete the documents of vets that changed or are gone.
+	 */
+	void sync() throws IOException {
+		HnswVectorStore store = (HnswVectorStore) this.vectorStore;
+		List<Map<String, Object>> vets = this.webClient
+			.get()
+			.uri(VETS_URL)
+			.retrieve()
+			.bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+			.block();
+
+		Map<String, String> storedIdsByHash = new HashMap<>();
+		List<String> stale = new ArrayList<>();
+		for (Document document : store.documents()) {
+			Object hash = document.getMetadata().get(CONTENT_HASH);
+			String duplicate = storedIdsByHash.put(hash instanceof String ? (String) hash : hash(document.getContent()),
+					document.getId());
+			if (duplicate != null) {
+				stale.add(duplicate);
+			}
+		}
+
+		List<Document> changed = new ArrayList<>();
+		Set<String> currentHashes = new HashSet<>();
+		for (Map<String, Object> vet : vets) {
+			String content = vet.toString();
+			String hash = hash(content);
+			currentHashes.add(hash);
+			if (!storedIdsByHash.containsKey(hash)) {
+				String vetId = String.valueOf(vet.get("id"));
+				changed.add(new Document(documentId(vetId), content, Map.of(VET_ID, vetId, CONTENT_HASH, hash)));
+			}
+		}
+		storedIdsByHash.forEach((hash, id) -> {
+			if (!currentHashes.contains(hash)) {
+				stale.add(id);
+			}
+		});
+		// a changed vet keeps its document id: adding it replaces the stored document
+		Set<String> changedIds = new HashSet<>();
+		changed.forEach(document -> changedIds.add(document.getId()));
+		stale.removeIf(changedIds::contains);
+
+		int batchSize = this.properties.sync().batchSize();
+		for (int from = 0; from < changed.size(); from += batchSize) {
+			List<Document> batch = changed.subList(from, Math.min(from + batchSize, changed.size()));
+			List<float[]> embeddings = this.embeddingModel.embed(batch.stream().map(Document::getContent).toList());
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).setEmbedding(embeddings.get(i));
+			}
+			store.add(batch);
+		}
+		if (!stale.isEmpty()) {
+			store.delete(stale);
+		}
+
+		if (changed.isEmpty() && stale.isEmpty()) {
+			logger.debug("vector store is up to date with {} vets", vets.size());
+			return;
+		}
+		Path file = this.properties.file();
+		if (file != null) {
+			store.save(file);
+		}
+		logger.info("vector store synchronized: {} vets embedded, {} documents deleted", changed.size(),
+				stale.size());
+	}
+
+	private static String documentId(String vetId) {
+		return UUID.nameUUIDFromBytes(("vet-" + vetId).getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	private static String hash(String content) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
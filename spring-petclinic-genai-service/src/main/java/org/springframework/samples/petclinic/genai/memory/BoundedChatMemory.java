@@ -0,0 +1,167 @@
+package org.springframework.samples.petclinic.genai.memory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link ChatMemory} keeping a bounded history per conversation, unlike the unbounded
+ * {@link org.springframework.ai.chat.memory.InMemoryChatMemory}. Conversations idle for longer than the
+ * time-to-live are evicted, and beyond the maximum count the least recently used ones go first. Each conversation
+ * keeps its latest messages only, and the text of a message is truncated to a maximum length.
+ * <p>
+ * Publishes the number of live conversations and an estimate of the bytes their message texts retain.
+ */
+public class BoundedChatMemory implements ChatMemory, MeterBinder {
+
+	private final int maxMessages;
+
+	private final int maxMessageLength;
+
+	private final Cache<String, Conversation> conversations;
+
+	private final AtomicLong retainedBytes = new AtomicLong();
+
+	public BoundedChatMemory(ChatMemoryProperties properties) {
+		this(properties, Ticker.systemTicker());
+	}
+
+	BoundedChatMemory(ChatMemoryProperties properties, Ticker ticker) {
+		this.maxMessages = properties.maxMessages();
+		this.maxMessageLength = properties.maxMessageLength();
+		this.conversations = Caffeine.newBuilder()
+			.maximumSize(properties.maxConversations())
+			.expireAfterAccess(properties.ttl())
+			.ticker(ticker)
+			.evictionListener((String id, Conversation conversation, RemovalCause cause) -> release(conversation))
+			.build();
+	}
+
+	@Override
+	public void add(String conversationId, List<Message> messages) {
+		List<Message> truncated = messages.stream().map(this::truncate).toList();
+		// computed under the entry's lock, so that an eviction cannot interleave with the update of the bytes
+		this.conversations.asMap().compute(conversationId, (id, conversation) -> {
+			Conversation target = conversation != null ? conversation : new Conversation();
+			this.retainedBytes.addAndGet(target.add(truncated, this.maxMessages));
+			return target;
+		});
+	}
+
+	@Override
+	public List<Message> get(String conversationId, int lastN) {
+		Conversation conversation = this.conversations.getIfPresent(conversationId);
+		return conversation != null ? conversation.last(lastN) : List.of();
+	}
+
+	@Override
+	public void clear(String conversationId) {
+		Conversation removed = this.conversations.asMap().remove(conversationId);
+		if (removed != null) {
+			release(removed);
+		}
+	}
+
+	long conversations() {
+		this.conversations.cleanUp();
+		return this.conversations.estimatedSize();
+	}
+
+	long retainedBytes() {
+		this.conversations.cleanUp();
+		return this.retainedBytes.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("genai.chat.conversations", this, BoundedChatMemory::conversations)
+			.description("Conversations held in the chat memory")
+			.register(registry);
+		Gauge.builder("genai.chat.memory.retained", this, BoundedChatMemory::retainedBytes)
+			.description("Estimated size of the message texts held in the chat memory")
+			.baseUnit(BaseUnits.BYTES)
+			.register(registry);
+	}
+
+	private void release(Conversation conversation) {
+		this.retainedBytes.addAndGet(-conversation.bytes());
+	}
+
+	private Message truncate(Message message) {
+		String text = message.getContent();
+		if (text == null || text.length() <= this.maxMessageLength) {
+			return message;
+		}
+		int end = this.maxMessageLength;
+		if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+			end--;
+		}
+		String truncated = text.substring(0, end) + "...";
+		if (message instanceof UserMessage user) {
+			return new UserMessage(truncated, user.getMedia(), user.getMetadata());
+		}
+		if (message instanceof AssistantMessage assistant) {
+			return new AssistantMessage(truncated, assistant.getMetadata(), assistant.getToolCalls());
+		}
+		if (message instanceof SystemMessage) {
+			return new SystemMessage(truncated);
+		}
+		return message;
+	}
+
+	private static final class Conversation {
+
+		private final Deque<Message> messages = new ArrayDeque<>();
+
+		private long bytes;
+
+		/**
+		 * @return the change of the retained bytes
+		 */
+		synchronized long add(List<Message> added, int maxMessages) {
+			long before = this.bytes;
+			for (Message message : added) {
+				this.messages.addLast(message);
+				this.bytes += size(message);
+			}
+			while (this.messages.size() > maxMessages) {
+				this.bytes -= size(this.messages.removeFirst());
+			}
+			return this.bytes - before;
+		}
+
+		synchronized List<Message> last(int n) {
+			List<Message> last = new ArrayList<>(this.messages);
+			return last.subList(Math.max(0, last.size() - n), last.size());
+		}
+
+		synchronized long bytes() {
+			return this.bytes;
+		}
+
+		private static long size(Message message) {
+			String text = message.getContent();
+			return text != null ? (long) text.length() * Character.BYTES : 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.springframework.samples.petclinic.genai.memory;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds of the chat memory.
+ *
+ * @param maxConversations conversations kept, the least recently used ones being evicted first
+ * @param ttl time after which an idle conversation is evicted
+ * @param maxMessages latest messages kept per conversation
+ * @param maxMessageLength characters kept of the text of a message
+ */
+@ConfigurationProperties(prefix = "genai.chat.memory")
+public record ChatMemoryProperties(
+	@DefaultValue("10000") int maxConversations,
+	@DefaultValue("30m") Duration ttl,
+	@DefaultValue("20") int maxMessages,
+	@DefaultValue("4000") int maxMessageLength
+) {
+}
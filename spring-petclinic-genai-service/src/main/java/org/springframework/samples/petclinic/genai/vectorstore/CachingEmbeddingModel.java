@@ -0,0 +1,249 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * {@link EmbeddingModel} remembering the embeddings of query texts, so that a repeated similarity search does not
+ * call the embedding provider again. Texts are keyed by the SHA-256 of their normalized form: Unicode NFC, lower
+ * case, runs of whitespace collapsed. Only {@link #embed(String)} is cached; documents are embedded as before.
+ * <p>
+ * With a spill file, every new embedding is appended to it and the file is read back on creation, so the cache
+ * survives restarts. On creation the file is also rewritten without duplicate, excess or truncated records, and
+ * so it is once it holds twice as many records as the cache, coldest first. It must be deleted when the embedding
+ * model changes.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel, MeterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+	private static final String CACHE_NAME = "query-embeddings";
+
+	private static final int RECORD = 1;
+
+	private final EmbeddingModel delegate;
+
+	private final int maximumSize;
+
+	private final Path spillFile;
+
+	private final Cache<String, float[]> cache;
+
+	// records in the spill file, guarded by this
+	private int spilledRecords;
+
+	/**
+	 * @param spillFile where embeddings are kept across restarts, {@code null} to keep them in memory only
+	 */
+	public CachingEmbeddingModel(EmbeddingModel delegate, int maximumSize, Path spillFile) {
+		this.delegate = delegate;
+		this.maximumSize = maximumSize;
+		this.spillFile = spillFile;
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+		if (spillFile != null && Files.exists(spillFile)) {
+			readSpillFile();
+		}
+	}
+
+	@Override
+	public float[] embed(String text) {
+		// concurrent misses on the same text share one call to the provider and one spilled record
+		float[] embedding = this.cache.get(key(text), key -> {
+			float[] computed = this.delegate.embed(text);
+			spill(key, computed);
+			return computed;
+		});
+		compactSpillFile();
+		return embedding.clone();
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		return this.delegate.embed(document);
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		return this.delegate.call(request);
+	}
+
+	@Override
+	public int dimensions() {
+		return this.delegate.dimensions();
+	}
+
+	/**
+	 * Publishes the {@code cache.gets} hit and miss counters, size and evictions of the cache.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.cache, CACHE_NAME);
+	}
+
+	static String key(String text) {
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+			.strip()
+			.replaceAll("\\s+", " ")
+			.toLowerCase(Locale.ROOT);
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private synchronized void spill(String key, float[] embedding) {
+		if (this.spillFile == null) {
+			return;
+		}
+		try {
+			Files.write(this.spillFile, record(key, embedding), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			this.spilledRecords++;
+		}
+		catch (IOException ex) {
+			logger.warn("Could not append to the query embedding cache file {}", this.spillFile, ex);
+		}
+	}
+
+	/**
+	 * Rewrites the spill file once it holds twice as many records as the cache. Called outside of the loader, as
+	 * reading the entries of the cache while computing one of them may deadlock with its eviction.
+	 */
+	private void compactSpillFile() {
+		synchronized (this) {
+			if (this.spilledRecords <= 2 * this.maximumSize) {
+				return;
+			}
+		}
+		// a record appended between the snapshot and the rewrite is only kept in memory
+		Map<String, float[]> embeddings = coldestFirst();
+		synchronized (this) {
+			if (this.spilledRecords > 2 * this.maximumSize) {
+				rewriteSpillFile(embeddings);
+			}
+		}
+	}
+
+	/**
+	 * The entries the cache retains, coldest first, in the order {@link #readSpillFile()} expects.
+	 */
+	private Map<String, float[]> coldestFirst() {
+		List<Map.Entry<String, float[]>> hottestFirst = new ArrayList<>(this.cache.policy()
+			.eviction()
+			.map(eviction -> eviction.hottest(this.maximumSize))
+			.orElseGet(() -> new LinkedHashMap<>(this.cache.asMap()))
+			.entrySet());
+		Collections.reverse(hottestFirst);
+		Map<String, float[]> embeddings = new LinkedHashMap<>();
+		hottestFirst.forEach(entry -> embeddings.put(entry.getKey(), entry.getValue()));
+		return embeddings;
+	}
+
+	private void readSpillFile() {
+		// oldest record first, so that the most recently embedded texts are kept
+		Map<String, float[]> embeddings = new LinkedHashMap<>();
+		int records = 0;
+		boolean truncated = false;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.spillFile)))) {
+			for (int marker = in.read(); marker != -1; marker = in.read()) {
+				if (marker != RECORD) {
+					throw new IOException("Unexpected record marker " + marker);
+				}
+				String key = in.readUTF();
+				float[] embedding = new float[in.readInt()];
+				for (int i = 0; i < embedding.length; i++) {
+					embedding[i] = in.readFloat();
+				}
+				embeddings.remove(key);
+				embeddings.put(key, embedding);
+				records++;
+			}
+		}
+		catch (EOFException ex) {
+			// a record cut short by a crash, dropped by the rewrite below
+			truncated = true;
+		}
+		catch (IOException ex) {
+			logger.warn("Could not read the query embedding cache file {}", this.spillFile, ex);
+			return;
+		}
+		for (Iterator<String> keys = embeddings.keySet().iterator(); embeddings.size() > this.maximumSize;) {
+			keys.next();
+			keys.remove();
+		}
+		this.cache.putAll(embeddings);
+		logger.info("Loaded {} query embeddings from {}", embeddings.size(), this.spillFile);
+		this.spilledRecords = records;
+		if (truncated || records > embeddings.size()) {
+			rewriteSpillFile(embeddings);
+		}
+	}
+
+	private void rewriteSpillFile(Map<String, float[]> embeddings) {
+		try {
+			Path temporary = Files.createTempFile(this.spillFile.toAbsolutePath().getParent(),
+					this.spillFile.getFileName().toString(), ".tmp");
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			for (Map.Entry<String, float[]> entry : embeddings.entrySet()) {
+				bytes.write(record(entry.getKey(), entry.getValue()));
+			}
+			Files.write(temporary, bytes.toByteArray());
+			Files.move(temporary, this.spillFile, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			this.spilledRecords = embeddings.size();
+		}
+		catch (IOException ex) {
+			logger.warn("Could not compact the query embedding cache file {}", this.spillFile, ex);
+		}
+	}
+
+	private static byte[] record(String key, float[] embedding) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(key.length() + 7 + embedding.length * Float.BYTES);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(RECORD);
+			out.writeUTF(key);
+			out.writeInt(embedding.length);
+			for (float value : embedding) {
+				out.writeFloat(value);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+}
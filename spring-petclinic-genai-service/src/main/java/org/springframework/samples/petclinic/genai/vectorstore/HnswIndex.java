@@ -0,0 +1,504 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical Navigable Small World graph (Malkov and Yashunin) over vectors ranked by cosine similarity.
+ * Vectors are normalized on insertion and kept in a single contiguous {@code float[]}, so a similarity is a
+ * plain dot product over a slice of that array. Deleted nodes stay in the graph as tombstones: they are still
+ * traversed but never returned.
+ * <p>
+ * An index {@link #mapped mapped} from a {@link VectorStoreFile} reads its vectors and links straight from the
+ * mapping, off-heap; the first {@link #add} copies them onto the heap.
+ * <p>
+ * Not thread-safe: callers must not run {@link #add} or {@link #delete} concurrently with other calls.
+ */
+class HnswIndex {
+
+	static final int NO_NODE = -1;
+
+	private static final int MAX_LEVEL = 16;
+
+	private static final int[] NO_LINKS = new int[0];
+
+	private static final Comparator<Match> MOST_SIMILAR_FIRST = Comparator.comparingDouble(Match::similarity)
+		.reversed();
+
+	private static final Comparator<Match> LEAST_SIMILAR_FIRST = Comparator.comparingDouble(Match::similarity);
+
+	private final int dimensions;
+
+	private final int maxConnections;
+
+	private final int efConstruction;
+
+	private final double levelMultiplier;
+
+	private final Random random;
+
+	private float[] vectors;
+
+	private int[] levels;
+
+	// node -> level -> neighbours
+	private int[][][] links;
+
+	// replace the three arrays above while the index is mapped
+	private FloatBuffer[] mappedVectors;
+
+	private IntBuffer mappedLinks;
+
+	private final BitSet deleted = new BitSet();
+
+	private int size;
+
+	private int entryPoint = NO_NODE;
+
+	private int maxLevel = -1;
+
+	private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+	HnswIndex(int dimensions, int maxConnections, int efConstruction, long seed) {
+		if (dimensions < 1 || maxConnections < 2 || efConstruction < 1) {
+			throw new IllegalArgumentException("Invalid HNSW parameters: dimensions=" + dimensions
+					+ ", maxConnections=" + maxConnections + ", efConstruction=" + efConstruction);
+		}
+		this.dimensions = dimensions;
+		this.maxConnections = maxConnections;
+		this.efConstruction = efConstruction;
+		this.levelMultiplier = 1 / Math.log(maxConnections);
+		this.random = new Random(seed);
+		this.vectors = new float[16 * dimensions];
+		this.levels = new int[16];
+		this.links = new int[16][][];
+	}
+
+	/**
+	 * Index reading its vectors and links from mapped buffers, in the layout written by {@link VectorStoreFile}.
+	 * @param vectors normalized vectors, {@link #nodesPerChunk} nodes per buffer
+	 * @param links per node offset of its links record in {@code links}, followed by the {@link #linksRecord
+	 * records}
+	 */
+	static HnswIndex mapped(int dimensions, int maxConnections, int efConstruction, long seed, int size,
+			int entryPoint, int maxLevel, BitSet deleted, FloatBuffer[] vectors, IntBuffer links) {
+		HnswIndex index = new HnswIndex(dimensions, maxConnections, efConstruction, seed);
+		index.vectors = null;
+		index.levels = null;
+		index.links = null;
+		index.mappedVectors = vectors;
+		index.mappedLinks = links;
+		index.size = size;
+		index.entryPoint = entryPoint;
+		index.maxLevel = maxLevel;
+		index.deleted.or(deleted);
+		return index;
+	}
+
+	/**
+	 * Nodes per mapped vector buffer, keeping each buffer within 1 GiB.
+	 */
+	static int nodesPerChunk(int dimensions) {
+		return (1 << 30) / (dimensions * Float.BYTES);
+	}
+
+	int dimensions() {
+		return this.dimensions;
+	}
+
+	int maxConnections() {
+		return this.maxConnections;
+	}
+
+	int efConstruction() {
+		return this.efConstruction;
+	}
+
+	/**
+	 * Number of nodes, including deleted ones.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	int deletedCount() {
+		return this.deleted.cardinality();
+	}
+
+	boolean isDeleted(int node) {
+		return this.deleted.get(node);
+	}
+
+	int entryPoint() {
+		return this.entryPoint;
+	}
+
+	int maxLevel() {
+		return this.maxLevel;
+	}
+
+	/**
+	 * Copy of the normalized vector of a node.
+	 */
+	float[] vector(int node) {
+		if (this.mappedVectors != null) {
+			float[] vector = new float[this.dimensions];
+			this.mappedVectors[node / nodesPerChunk(this.dimensions)]
+				.get((node % nodesPerChunk(this.dimensions)) * this.dimensions, vector);
+			return vector;
+		}
+		return Arrays.copyOfRange(this.vectors, node * this.dimensions, (node + 1) * this.dimensions);
+	}
+
+	/**
+	 * Links of a node as written to a file: its level, then for each level from 0 up the number of neighbours
+	 * followed by the neighbours.
+	 */
+	int[] linksRecord(int node) {
+		int level = level(node);
+		int[][] neighbours = new int[level + 1][];
+		int length = 1;
+		for (int l = 0; l <= level; l++) {
+			neighbours[l] = neighbours(node, l);
+			length += 1 + neighbours[l].length;
+		}
+		int[] record = new int[length];
+		record[0] = level;
+		int position = 1;
+		for (int[] layer : neighbours) {
+			record[position++] = layer.length;
+			System.arraycopy(layer, 0, record, position, layer.length);
+			position += layer.length;
+		}
+		return record;
+	}
+
+	/**
+	 * Insert a vector and link it into the graph.
+	 * @return the node of the vector
+	 */
+	int add(float[] vector) {
+		if (vector.length != this.dimensions) {
+			throw new IllegalArgumentException(
+					"Expected a vector of " + this.dimensions + " dimensions but got " + vector.length);
+		}
+		materialize();
+		int node = this.size;
+		ensureCapacity(node + 1);
+		float[] query = normalize(vector);
+		System.arraycopy(query, 0, this.vectors, node * this.dimensions, this.dimensions);
+		int level = randomLevel();
+		this.levels[node] = level;
+		this.links[node] = new int[level + 1][];
+		Arrays.fill(this.links[node], NO_LINKS);
+		this.size++;
+
+		if (this.entryPoint == NO_NODE) {
+			this.entryPoint = node;
+			this.maxLevel = level;
+			return node;
+		}
+		int current = this.entryPoint;
+		for (int l = this.maxLevel; l > level; l--) {
+			current = searchLayer(query, current, 1, l).get(0).node();
+		}
+		for (int l = Math.min(level, this.maxLevel); l >= 0; l--) {
+			List<Match> found = searchLayer(query, current, this.efConstruction, l);
+			int[] neighbours = selectNeighbours(found, maxConnections(l));
+			this.links[node][l] = neighbours;
+			for (int neighbour : neighbours) {
+				connect(neighbour, node, l);
+			}
+			current = found.get(0).node();
+		}
+		if (level > this.maxLevel) {
+			this.maxLevel = level;
+			this.entryPoint = node;
+		}
+		return node;
+	}
+
+	void delete(int node) {
+		this.deleted.set(node);
+	}
+
+	/**
+	 * The {@code k} live nodes most similar to {@code query}, most similar first, exploring {@code ef} candidates
+	 * on the bottom layer.
+	 */
+	List<Match> search(float[] query, int k, int ef) {
+		if (this.entryPoint == NO_NODE || k < 1) {
+			return List.of();
+		}
+		float[] normalized = normalize(query);
+		int current = this.entryPoint;
+		for (int l = this.maxLevel; l > 0; l--) {
+			current = searchLayer(normalized, current, 1, l).get(0).node();
+		}
+		List<Match> found = searchLayer(normalized, current, Math.max(ef, k), 0);
+		List<Match> matches = new ArrayList<>(k);
+		for (Match match : found) {
+			if (!this.deleted.get(match.node())) {
+				matches.add(match);
+				if (matches.size() == k) {
+					break;
+				}
+			}
+		}
+		return matches;
+	}
+
+	private List<Match> searchLayer(float[] query, int entry, int ef, int level) {
+		Visited visited = this.visited.get().clear(this.size);
+		PriorityQueue<Match> candidates = new PriorityQueue<>(MOST_SIMILAR_FIRST);
+		PriorityQueue<Match> results = new PriorityQueue<>(LEAST_SIMILAR_FIRST);
+		Match start = new Match(entry, similarity(query, entry));
+		visited.add(entry);
+		candidates.add(start);
+		results.add(start);
+		while (!candidates.isEmpty()) {
+			Match candidate = candidates.poll();
+			if (candidate.similarity() < results.peek().similarity()) {
+				break;
+			}
+			for (int neighbour : neighbours(candidate.node(), level)) {
+				if (!visited.add(neighbour)) {
+					continue;
+				}
+				float similarity = similarity(query, neighbour);
+				if (results.size() < ef || similarity > results.peek().similarity()) {
+					Match match = new Match(neighbour, similarity);
+					candidates.add(match);
+					results.add(match);
+					if (results.size() > ef) {
+						results.poll();
+					}
+				}
+			}
+		}
+		List<Match> found = new ArrayList<>(results);
+		found.sort(MOST_SIMILAR_FIRST);
+		return found;
+	}
+
+	/**
+	 * Neighbour selection heuristic: a candidate is kept only if it is closer to the base than to any neighbour
+	 * already kept, which favours links in different directions; remaining slots are filled with the closest
+	 * pruned candidates.
+	 * @param candidates candidates ordered by decreasing similarity to the base
+	 */
+	private int[] selectNeighbours(List<Match> candidates, int max) {
+		int[] selected = new int[Math.min(max, candidates.size())];
+		int count = 0;
+		List<Match> pruned = new ArrayList<>();
+		for (Match candidate : candidates) {
+			if (count == selected.length) {
+				break;
+			}
+			boolean diverse = true;
+			for (int i = 0; i < count && diverse; i++) {
+				diverse = similarity(candidate.node(), selected[i]) <= candidate.similarity();
+			}
+			if (diverse) {
+				selected[count++] = candidate.node();
+			}
+			else {
+				pruned.add(candidate);
+			}
+		}
+		for (int i = 0; i < pruned.size() && count < selected.length; i++) {
+			selected[count++] = pruned.get(i).node();
+		}
+		return selected;
+	}
+
+	private void connect(int node, int neighbour, int level) {
+		int[] existing = this.links[node][level];
+		int max = maxConnections(level);
+		if (existing.length < max) {
+			int[] extended = Arrays.copyOf(existing, existing.length + 1);
+			extended[existing.length] = neighbour;
+			this.links[node][level] = extended;
+			return;
+		}
+		List<Match> options = new ArrayList<>(existing.length + 1);
+		for (int other : existing) {
+			options.add(new Match(other, similarity(node, other)));
+		}
+		options.add(new Match(neighbour, similarity(node, neighbour)));
+		options.sort(MOST_SIMILAR_FIRST);
+		this.links[node][level] = selectNeighbours(options, max);
+	}
+
+	private int level(int node) {
+		return this.mappedLinks != null ? this.mappedLinks.get(this.mappedLinks.get(node)) : this.levels[node];
+	}
+
+	private int[] neighbours(int node, int level) {
+		if (this.mappedLinks == null) {
+			return this.links[node][level];
+		}
+		int position = this.mappedLinks.get(node) + 1;
+		for (int l = 0; l < level; l++) {
+			position += 1 + this.mappedLinks.get(position);
+		}
+		int[] neighbours = new int[this.mappedLinks.get(position)];
+		this.mappedLinks.get(position + 1, neighbours);
+		return neighbours;
+	}
+
+	/**
+	 * Copy a mapped index onto the heap so that it can be extended.
+	 */
+	private void materialize() {
+		if (this.mappedVectors == null) {
+			return;
+		}
+		int capacity = Math.max(this.size, 16);
+		float[] vectors = new float[capacity * this.dimensions];
+		int[] levels = new int[capacity];
+		int[][][] links = new int[capacity][][];
+		for (int node = 0; node < this.size; node++) {
+			System.arraycopy(vector(node), 0, vectors, node * this.dimensions, this.dimensions);
+			levels[node] = level(node);
+			links[node] = new int[levels[node] + 1][];
+			for (int l = 0; l <= levels[node]; l++) {
+				links[node][l] = neighbours(node, l);
+			}
+		}
+		this.vectors = vectors;
+		this.levels = levels;
+		this.links = links;
+		this.mappedVectors = null;
+		this.mappedLinks = null;
+	}
+
+	private int maxConnections(int level) {
+		return level == 0 ? 2 * this.maxConnections : this.maxConnections;
+	}
+
+	private int randomLevel() {
+		double level = -Math.log(1 - this.random.nextDouble()) * this.levelMultiplier;
+		return (int) Math.min(level, MAX_LEVEL);
+	}
+
+	private float similarity(float[] query, int node) {
+		if (this.mappedVectors != null) {
+			int nodesPerChunk = nodesPerChunk(this.dimensions);
+			return dot(query, this.mappedVectors[node / nodesPerChunk], (node % nodesPerChunk) * this.dimensions,
+					this.dimensions);
+		}
+		return dot(query, 0, this.vectors, node * this.dimensions, this.dimensions);
+	}
+
+	private float similarity(int a, int b) {
+		return dot(this.vectors, a * this.dimensions, this.vectors, b * this.dimensions, this.dimensions);
+	}
+
+	/**
+	 * Dot product with four independent accumulators, which lets the JIT pipeline the multiplications.
+	 */
+	static float dot(float[] a, int offsetA, float[] b, int offsetB, int length) {
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			sum0 += a[offsetA + i] * b[offsetB + i];
+			sum1 += a[offsetA + i + 1] * b[offsetB + i + 1];
+			sum2 += a[offsetA + i + 2] * b[offsetB + i + 2];
+			sum3 += a[offsetA + i + 3] * b[offsetB + i + 3];
+		}
+		for (; i < length; i++) {
+			sum0 += a[offsetA + i] * b[offsetB + i];
+		}
+		return sum0 + sum1 + sum2 + sum3;
+	}
+
+	static float dot(float[] a, FloatBuffer b, int offsetB, int length) {
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			sum0 += a[i] * b.get(offsetB + i);
+			sum1 += a[i + 1] * b.get(offsetB + i + 1);
+			sum2 += a[i + 2] * b.get(offsetB + i + 2);
+			sum3 += a[i + 3] * b.get(offsetB + i + 3);
+		}
+		for (; i < length; i++) {
+			sum0 += a[i] * b.get(offsetB + i);
+		}
+		return sum0 + sum1 + sum2 + sum3;
+	}
+
+	private void ensureCapacity(int nodes) {
+		if (nodes <= this.levels.length) {
+			return;
+		}
+		int capacity = Math.max(nodes, this.levels.length * 2);
+		this.vectors = Arrays.copyOf(this.vectors, capacity * this.dimensions);
+		this.levels = Arrays.copyOf(this.levels, capacity);
+		this.links = Arrays.copyOf(this.links, capacity);
+	}
+
+	static float[] normalize(float[] vector) {
+		double norm = 0;
+		for (float value : vector) {
+			norm += value * value;
+		}
+		float[] normalized = Arrays.copyOf(vector, vector.length);
+		if (norm > 0) {
+			float scale = (float) (1 / Math.sqrt(norm));
+			for (int i = 0; i < normalized.length; i++) {
+				normalized[i] *= scale;
+			}
+		}
+		return normalized;
+	}
+
+	record Match(int node, float similarity) {
+	}
+
+	/**
+	 * Set of nodes visited by one layer search, reused across searches of a thread: a node is visited when its
+	 * mark equals the current epoch, so clearing is a single increment.
+	 */
+	private static final class Visited {
+
+		private int[] marks = new int[0];
+
+		private int epoch;
+
+		Visited clear(int size) {
+			if (this.marks.length < size) {
+				this.marks = new int[Math.max(size, this.marks.length * 2)];
+				this.epoch = 0;
+			}
+			if (++this.epoch == 0) {
+				Arrays.fill(this.marks, 0);
+				this.epoch = 1;
+			}
+			return this;
+		}
+
+		boolean add(int node) {
+			if (this.marks[node] == this.epoch) {
+				return false;
+			}
+			this.marks[node] = this.epoch;
+			return true;
+		}
+
+	}
+
+}
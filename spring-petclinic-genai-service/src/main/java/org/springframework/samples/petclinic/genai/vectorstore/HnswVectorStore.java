@@ -0,0 +1,262 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link VectorStore} backed by an in-process {@link HnswIndex}, so a similarity search visits a few hundred
+ * vectors instead of scanning all of them. Documents are kept without their embeddings, which live in the
+ * index. Adding a document whose id is already stored replaces it. Once deleted documents outnumber live
+ * ones, the index is rebuilt from the live vectors. Metadata filter expressions are not supported.
+ * <p>
+ * A store {@link #load loaded} from a {@link VectorStoreFile} serves searches from the mapped file, so that its
+ * vectors stay off-heap and only returned documents are decoded. The first change copies it onto the heap.
+ */
+public class HnswVectorStore implements VectorStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(HnswVectorStore.class);
+
+	private static final long SEED = 42;
+
+	private final EmbeddingModel embeddingModel;
+
+	private final int maxConnections;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// created with the first vector, whose length gives the dimensions
+	private HnswIndex index;
+
+	// documents of a loaded store until its first change, replacing documents and nodesById
+	private VectorStoreFile file;
+
+	private final List<Document> documents = new ArrayList<>();
+
+	private final Map<String, Integer> nodesById = new HashMap<>();
+
+	public HnswVectorStore(EmbeddingModel embeddingModel, int maxConnections, int efConstruction, int efSearch) {
+		this.embeddingModel = embeddingModel;
+		this.maxConnections = maxConnections;
+		this.efConstruction = efConstruction;
+		this.efSearch = efSearch;
+	}
+
+	/**
+	 * Add documents, embedding those that do not carry an embedding yet.
+	 */
+	@Override
+	public void add(List<Document> documents) {
+		List<float[]> embeddings = new ArrayList<>(documents.size());
+		for (Document document : documents) {
+			float[] embedding = document.getEmbedding();
+			embeddings.add(embedding != null && embedding.length > 0 ? embedding : this.embeddingModel.embed(document));
+		}
+		this.lock.writeLock().lock();
+		try {
+			detach();
+			for (int i = 0; i < documents.size(); i++) {
+				Document document = documents.get(i);
+				if (this.index == null) {
+					this.index = new HnswIndex(embeddings.get(i).length, this.maxConnections, this.efConstruction,
+							SEED);
+				}
+				remove(document.getId());
+				int node = this.index.add(embeddings.get(i));
+				this.documents.add(new Document(document.getId(), document.getContent(), document.getMetadata()));
+				this.nodesById.put(document.getId(), node);
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Optional<Boolean> delete(List<String> idList) {
+		this.lock.writeLock().lock();
+		try {
+			detach();
+			boolean deleted = false;
+			for (String id : idList) {
+				deleted |= remove(id);
+			}
+			if (this.index != null && this.index.deletedCount() > this.index.size() - this.index.deletedCount()) {
+				compact();
+			}
+			return Optional.of(deleted);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Document> similaritySearch(SearchRequest request) {
+		if (request.getFilterExpression() != null) {
+			throw new UnsupportedOperationException("Metadata filters are not supported by " + getName());
+		}
+		float[] query = this.embeddingModel.embed(request.getQuery());
+		this.lock.readLock().lock();
+		try {
+			if (this.index == null) {
+				return List.of();
+			}
+			List<Document> results = new ArrayList<>(request.getTopK());
+			for (HnswIndex.Match match : this.index.search(query, request.getTopK(),
+					Math.max(this.efSearch, request.getTopK()))) {
+				if (match.similarity() < request.getSimilarityThreshold()) {
+					break;
+				}
+				Document document = document(match.node());
+				Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+				metadata.put("distance", 1 - match.similarity());
+				results.add(new Document(document.getId(), document.getContent(), metadata));
+			}
+			return results;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Number of documents in the store.
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.index != null ? this.index.size() - this.index.deletedCount() : 0;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The documents in the store, without their embeddings.
+	 */
+	public List<Document> documents() {
+		this.lock.readLock().lock();
+		try {
+			List<Document> live = new ArrayList<>();
+			for (int node = 0; this.index != null && node < this.index.size(); node++) {
+				if (!this.index.isDeleted(node)) {
+					live.add(document(node));
+				}
+			}
+			return live;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Write the documents and the index to {@code file}, replacing it atomically.
+	 */
+	public void save(Path file) throws IOException {
+		Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		this.lock.readLock().lock();
+		try {
+			VectorStoreFile.write(temporary, this.index, this::document, this.objectMapper);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		logger.info("Saved {} documents to {}", size(), file);
+	}
+
+	/**
+	 * Replace the contents of the store with those saved in {@code file}, which is mapped rather than read.
+	 */
+	public void load(Path file) throws IOException {
+		VectorStoreFile loaded = VectorStoreFile.open(file, SEED, this.objectMapper);
+		this.lock.writeLock().lock();
+		try {
+			this.index = loaded.index();
+			this.file = loaded.index() != null ? loaded : null;
+			this.documents.clear();
+			this.nodesById.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		logger.info("Loaded {} documents from {}", size(), file);
+	}
+
+	private Document document(int node) {
+		return this.file != null ? this.file.document(node) : this.documents.get(node);
+	}
+
+	/**
+	 * Copy the documents of a loaded file onto the heap, ahead of a change.
+	 */
+	private void detach() {
+		if (this.file == null) {
+			return;
+		}
+		for (int node = 0; node < this.index.size(); node++) {
+			if (this.index.isDeleted(node)) {
+				this.documents.add(null);
+			}
+			else {
+				Document document = this.file.document(node);
+				this.documents.add(document);
+				this.nodesById.put(document.getId(), node);
+			}
+		}
+		this.file = null;
+	}
+
+	private boolean remove(String id) {
+		Integer node = this.nodesById.remove(id);
+		if (node == null) {
+			return false;
+		}
+		this.index.delete(node);
+		this.documents.set(node, null);
+		return true;
+	}
+
+	private void compact() {
+		HnswIndex compacted = new HnswIndex(this.index.dimensions(), this.maxConnections, this.efConstruction, SEED);
+		List<Document> live = new ArrayList<>(this.nodesById.size());
+		this.nodesById.clear();
+		for (int node = 0; node < this.index.size(); node++) {
+			if (!this.index.isDeleted(node)) {
+				Document document = this.documents.get(node);
+				this.nodesById.put(document.getId(), compacted.add(this.index.vector(node)));
+				live.add(document);
+			}
+		}
+		this.index = compacted;
+		this.documents.clear();
+		this.documents.addAll(live);
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the JSON files written by {@link SimpleVectorStore#save}, such as the {@code vectorstore.json} shipped
+ * on the classpath, into documents carrying their embeddings.
+ */
+public final class SimpleVectorStoreJson {
+
+	private static final TypeReference<Map<String, StoredDocument>> STORE_TYPE = new TypeReference<>() {
+	};
+
+	private SimpleVectorStoreJson() {
+	}
+
+	public static List<Document> read(InputStream json) throws IOException {
+		Map<String, StoredDocument> store = new ObjectMapper().readValue(json, STORE_TYPE);
+		List<Document> documents = new ArrayList<>(store.size());
+		for (StoredDocument stored : store.values()) {
+			Document document = new Document(stored.id(), stored.content(),
+					stored.metadata() != null ? new HashMap<>(stored.metadata()) : new HashMap<>());
+			document.setEmbedding(stored.embedding());
+			documents.add(document);
+		}
+		return documents;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	record StoredDocument(String id, String content, Map<String, Object> metadata, float[] embedding) {
+	}
+
+}
@@ -0,0 +1,310 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.springframework.ai.document.Document;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Binary file of an {@link HnswVectorStore}, laid out to be memory-mapped rather than parsed. All values are
+ * little-endian:
+ * <pre>
+ * header     magic, version, dimensions, maxConnections, efConstruction, size, entryPoint, maxLevel as int32,
+ *            then the offsets of the deleted, links and documents sections as int64, padded to 64 bytes
+ * vectors    size x dimensions normalized float32
+ * deleted    bitmap of (size + 63) / 64 int64
+ * links      per node the int32 offset of its links record in this section, counted in int32, then the
+ *            records: level, then per level the number of neighbours followed by the neighbours
+ * documents  per node the int64 offset of its document in this section, -1 for deleted nodes, then the
+ *            documents: id, content and metadata as JSON, each an int32 length followed by UTF-8 bytes
+ * </pre>
+ * Opening a file maps it and reads only the header and the deleted bitmap: vectors and links stay off-heap and
+ * documents are decoded when a search returns them. A store holding no document is written with 0 dimensions.
+ */
+final class VectorStoreFile {
+
+	static final int MAGIC = 0x504E5357; // "PNSW"
+
+	static final int VERSION = 2;
+
+	private static final int HEADER_BYTES = 64;
+
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+	};
+
+	private final HnswIndex index;
+
+	private final ByteBuffer documents;
+
+	private final ObjectMapper objectMapper;
+
+	private VectorStoreFile(HnswIndex index, ByteBuffer documents, ObjectMapper objectMapper) {
+		this.index = index;
+		this.documents = documents;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * The mapped index, {@code null} when the store was empty.
+	 */
+	HnswIndex index() {
+		return this.index;
+	}
+
+	/**
+	 * The document of a live node.
+	 */
+	Document document(int node) {
+		int position = Math.toIntExact(this.documents.getLong(node * Long.BYTES));
+		byte[] id = bytes(position);
+		position += Integer.BYTES + id.length;
+		byte[] content = bytes(position);
+		position += Integer.BYTES + content.length;
+		try {
+			return new Document(new String(id, StandardCharsets.UTF_8), new String(content, StandardCharsets.UTF_8),
+					this.objectMapper.readValue(bytes(position), METADATA_TYPE));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unreadable metadata of node " + node, ex);
+		}
+	}
+
+	private byte[] bytes(int position) {
+		byte[] bytes = new byte[this.documents.getInt(position)];
+		this.documents.get(position + Integer.BYTES, bytes);
+		return bytes;
+	}
+
+	static VectorStoreFile open(Path file, long seed, ObjectMapper objectMapper) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) {
+				throw new IOException(file + " is not a vector store file");
+			}
+			ByteBuffer header = map(channel, 0, HEADER_BYTES);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(file + " is not a vector store file of version " + VERSION);
+			}
+			int dimensions = header.getInt();
+			int maxConnections = header.getInt();
+			int efConstruction = header.getInt();
+			int size = header.getInt();
+			int entryPoint = header.getInt();
+			int maxLevel = header.getInt();
+			long deletedOffset = header.getLong();
+			long linksOffset = header.getLong();
+			long documentsOffset = header.getLong();
+			if (dimensions == 0) {
+				return new VectorStoreFile(null, null, objectMapper);
+			}
+
+			int nodesPerChunk = HnswIndex.nodesPerChunk(dimensions);
+			FloatBuffer[] vectors = new FloatBuffer[(size + nodesPerChunk - 1) / nodesPerChunk];
+			for (int chunk = 0; chunk < vectors.length; chunk++) {
+				long nodes = Math.min(nodesPerChunk, size - (long) chunk * nodesPerChunk);
+				long offset = HEADER_BYTES + (long) chunk * nodesPerChunk * dimensions * Float.BYTES;
+				vectors[chunk] = map(channel, offset, nodes * dimensions * Float.BYTES).asFloatBuffer();
+			}
+			long[] words = new long[(size + 63) / 64];
+			map(channel, deletedOffset, (long) words.length * Long.BYTES).asLongBuffer().get(words);
+			HnswIndex index = HnswIndex.mapped(dimensions, maxConnections, efConstruction, seed, size, entryPoint,
+					maxLevel, BitSet.valueOf(words), vectors,
+					map(channel, linksOffset, documentsOffset - linksOffset).asIntBuffer());
+			return new VectorStoreFile(index,
+					map(channel, documentsOffset, channel.size() - documentsOffset), objectMapper);
+		}
+	}
+
+	/**
+	 * Write {@code index} and the documents of its live nodes to {@code file}.
+	 * @param index the index, {@code null} for an empty store
+	 */
+	static void write(Path file, HnswIndex index, IntFunction<Document> documents, ObjectMapper objectMapper)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING); Output out = new Output(channel)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION);
+			if (index == null) {
+				header.position(HEADER_BYTES);
+				out.write(header.flip());
+				return;
+			}
+			out.write(ByteBuffer.allocate(HEADER_BYTES));
+			int size = index.size();
+			for (int node = 0; node < size; node++) {
+				for (float value : index.vector(node)) {
+					out.putFloat(value);
+				}
+			}
+
+			long deletedOffset = out.align();
+			BitSet deleted = new BitSet(size);
+			for (int node = 0; node < size; node++) {
+				deleted.set(node, index.isDeleted(node));
+			}
+			long[] words = deleted.toLongArray();
+			for (int word = 0; word < (size + 63) / 64; word++) {
+				out.putLong(word < words.length ? words[word] : 0);
+			}
+
+			long linksOffset = out.align();
+			int[] linksPositions = new int[size];
+			int linksPosition = size;
+			for (int node = 0; node < size; node++) {
+				linksPositions[node] = linksPosition;
+				linksPosition += index.linksRecord(node).length;
+			}
+			for (int position : linksPositions) {
+				out.putInt(position);
+			}
+			for (int node = 0; node < size; node++) {
+				for (int value : index.linksRecord(node)) {
+					out.putInt(value);
+				}
+			}
+
+			// the offsets of the documents are known once they are written, so their table is filled in last
+			long documentsOffset = out.align();
+			long[] documentPositions = new long[size];
+			out.write(ByteBuffer.allocate(size * Long.BYTES));
+			for (int node = 0; node < size; node++) {
+				if (index.isDeleted(node)) {
+					documentPositions[node] = -1;
+					continue;
+				}
+				Document document = documents.apply(node);
+				documentPositions[node] = out.position() - documentsOffset;
+				out.putBytes(document.getId().getBytes(StandardCharsets.UTF_8));
+				out.putBytes(document.getContent().getBytes(StandardCharsets.UTF_8));
+				out.putBytes(objectMapper.writeValueAsBytes(document.getMetadata()));
+			}
+			out.flush();
+			ByteBuffer table = ByteBuffer.allocate(size * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			table.asLongBuffer().put(documentPositions);
+			out.write(table, documentsOffset);
+
+			header.putInt(index.dimensions())
+				.putInt(index.maxConnections())
+				.putInt(index.efConstruction())
+				.putInt(size)
+				.putInt(index.entryPoint())
+				.putInt(index.maxLevel())
+				.putLong(deletedOffset)
+				.putLong(linksOffset)
+				.putLong(documentsOffset);
+			header.position(HEADER_BYTES);
+			out.write(header.flip(), 0);
+		}
+	}
+
+	private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Section of " + length + " bytes at " + offset + " is too large to be mapped");
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Buffered little-endian writes to a channel.
+	 */
+	private static final class Output implements AutoCloseable {
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		private long flushed;
+
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		long position() {
+			return this.flushed + this.buffer.position();
+		}
+
+		/**
+		 * Pad to a multiple of 8 bytes, so that the next section can be viewed as any primitive type.
+		 */
+		long align() throws IOException {
+			while (position() % Long.BYTES != 0) {
+				ensure(1);
+				this.buffer.put((byte) 0);
+			}
+			return position();
+		}
+
+		void putInt(int value) throws IOException {
+			ensure(Integer.BYTES);
+			this.buffer.putInt(value);
+		}
+
+		void putLong(long value) throws IOException {
+			ensure(Long.BYTES);
+			this.buffer.putLong(value);
+		}
+
+		void putFloat(float value) throws IOException {
+			ensure(Float.BYTES);
+			this.buffer.putFloat(value);
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			putInt(bytes.length);
+			ensure(bytes.length);
+			if (bytes.length <= this.buffer.remaining()) {
+				this.buffer.put(bytes);
+			}
+			else {
+				write(ByteBuffer.wrap(bytes));
+			}
+		}
+
+		void write(ByteBuffer bytes) throws IOException {
+			flush();
+			while (bytes.hasRemaining()) {
+				this.flushed += this.channel.write(bytes);
+			}
+		}
+
+		void write(ByteBuffer bytes, long position) throws IOException {
+			flush();
+			while (bytes.hasRemaining()) {
+				position += this.channel.write(bytes, position);
+			}
+		}
+
+		void flush() throws IOException {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.flushed += this.channel.write(this.buffer);
+			}
+			this.buffer.clear();
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if (this.buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+}
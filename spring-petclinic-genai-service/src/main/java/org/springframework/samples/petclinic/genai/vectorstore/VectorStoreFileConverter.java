@@ -0,0 +1,46 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+/**
+ * Converts a JSON file written by {@link SimpleVectorStore#save} into the binary {@link VectorStoreFile} format
+ * opened by {@link HnswVectorStore#load}. The documents keep their embeddings, so no embedding model is called.
+ * <p>
+ * From the command line: {@code VectorStoreFileConverter <vectorstore.json> <output file>}.
+ */
+public final class VectorStoreFileConverter {
+
+	private VectorStoreFileConverter() {
+	}
+
+	public static void convert(InputStream json, Path file, VectorStoreProperties.Hnsw hnsw) throws IOException {
+		List<Document> documents = SimpleVectorStoreJson.read(json);
+		for (Document document : documents) {
+			if (document.getEmbedding() == null || document.getEmbedding().length == 0) {
+				throw new IOException("Document " + document.getId() + " has no embedding");
+			}
+		}
+		HnswVectorStore vectorStore = new HnswVectorStore(null, hnsw.maxConnections(), hnsw.efConstruction(),
+				hnsw.efSearch());
+		vectorStore.add(documents);
+		vectorStore.save(file);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: VectorStoreFileConverter <vectorstore.json> <output file>");
+			System.exit(2);
+		}
+		try (InputStream json = Files.newInputStream(Path.of(args[0]))) {
+			convert(json, Path.of(args[1]), new VectorStoreProperties.Hnsw(16, 200, 64));
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the vet vector store.
+ *
+ * @param file where the store is saved once built and mapped from on the next start; relative paths resolve
+ * against the working directory
+ * @param hnsw HNSW index parameters
+ * @param queryCache cache of the embeddings of search queries
+ * @param sync synchronization of the store with the vets-service
+ */
+@ConfigurationProperties(prefix = "genai.vectorstore")
+public record VectorStoreProperties(
+	@DefaultValue("vectorstore.hnsw") Path file,
+	@DefaultValue Hnsw hnsw,
+	@DefaultValue QueryCache queryCache,
+	@DefaultValue Sync sync
+) {
+	/**
+	 * @param maxConnections links per node on the upper layers, twice as many on the bottom layer
+	 * @param efConstruction candidates explored when linking a new node
+	 * @param efSearch candidates explored by a search, at least the requested top k
+	 */
+	public record Hnsw(
+		@DefaultValue("16") int maxConnections,
+		@DefaultValue("200") int efConstruction,
+		@DefaultValue("64") int efSearch
+	) {
+	}
+
+	/**
+	 * @param maximumSize number of query embeddings kept
+	 * @param file where query embeddings are kept across restarts; in memory only when unset
+	 */
+	public record QueryCache(
+		@DefaultValue("1000") int maximumSize,
+		Path file
+	) {
+	}
+
+	/**
+	 * @param enabled whether vets are synchronized; when disabled, a store without saved or pre-embedded
+	 * documents is built on startup instead
+	 * @param interval time between the end of a synchronization and the start of the next one
+	 * @param batchSize vets embedded per call to the embedding model
+	 */
+	public record Sync(
+		@DefaultValue("true") boolean enabled,
+		@DefaultValue("10m") Duration interval,
+		@DefaultValue("20") int batchSize
+	) {
+	}
+}
@@ -0,0 +1,74 @@
+package org.springframework.samples.petclinic.genai;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.genai.dto.OwnerDetails;
+import org.springframework.samples.petclinic.genai.dto.OwnerPage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AIDataProviderTest {
+
+    @Test
+    void shouldReturnAllOwnersWithinTheBudget() throws Exception {
+        AIDataProvider provider = provider(2000);
+
+        OwnersResponse response = provider.withinTokenBudget(page(owners(3), 3));
+
+        assertEquals(3, response.owners().size());
+        assertEquals(3, response.totalMatches());
+        assertFalse(response.truncated());
+    }
+
+    @Test
+    void shouldTruncateOwnersBeyondTheBudget() throws Exception {
+        // an owner without pets takes 34 tokens
+        AIDataProvider provider = provider(100);
+
+        OwnersResponse response = provider.withinTokenBudget(page(owners(10), 10));
+
+        assertEquals(2, response.owners().size());
+        assertEquals(List.of(1, 2), response.owners().stream().map(OwnerDetails::id).toList());
+        assertTrue(response.truncated());
+    }
+
+    @Test
+    void shouldKeepTheFirstOwnerEvenBeyondTheBudget() throws Exception {
+        AIDataProvider provider = provider(1);
+
+        OwnersResponse response = provider.withinTokenBudget(page(owners(2), 2));
+
+        assertEquals(1, response.owners().size());
+        assertTrue(response.truncated());
+    }
+
+    @Test
+    void shouldReportMatchesBeyondThePage() throws Exception {
+        AIDataProvider provider = provider(2000);
+
+        OwnersResponse response = provider.withinTokenBudget(page(owners(2), 42));
+
+        assertEquals(2, response.owners().size());
+        assertEquals(42, response.totalMatches());
+        assertTrue(response.truncated());
+    }
+
+    private static AIDataProvider provider(int tokenBudget) {
+        return new AIDataProvider(null, null, new ToolCallProperties(Duration.ofSeconds(5), Duration.ofSeconds(30), 20, 20, tokenBudget));
+    }
+
+    private static OwnerPage page(List<OwnerDetails> owners, long totalElements) {
+        return new OwnerPage(owners, new OwnerPage.PageMetadata(totalElements));
+    }
+
+    private static List<OwnerDetails> owners(int count) {
+        return IntStream.rangeClosed(1, count)
+            .mapToObj(id -> new OwnerDetails(id, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023", List.of()))
+            .toList();
+    }
+}
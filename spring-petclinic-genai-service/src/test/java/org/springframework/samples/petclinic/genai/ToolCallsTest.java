@@ -0,0 +1,77 @@
+package org.springframework.samples.petclinic.genai;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ToolCallsTest {
+
+    private final ToolCalls toolCalls = new ToolCalls(
+        new ToolCallProperties(Duration.ofMillis(200), Duration.ofMillis(500), 1, 20, 2000));
+
+    @Test
+    void shouldReturnResultOfCall() {
+        assertEquals("owners", toolCalls.await("listOwners", Mono.just("owners")));
+    }
+
+    @Test
+    void shouldFailSlowCall() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> toolCalls.await("listOwners", Mono.never()));
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldCountTheWaitForASlotAgainstTheTimeout() {
+        Mono.fromCallable(() -> toolCalls.await("listOwners", Mono.delay(Duration.ofMillis(150))))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(result -> { }, error -> { });
+        Mono.delay(Duration.ofMillis(20)).block();
+
+        // waits about 130ms for the slot, leaving less than the 100ms the call takes
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> toolCalls.await("listVets", Mono.delay(Duration.ofMillis(100))));
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheLimit() {
+        Sinks.One<String> pending = Sinks.one();
+        Mono.fromCallable(() -> toolCalls.await("listOwners", pending.asMono()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(result -> { }, error -> { });
+        // let the first call take the only slot
+        Mono.delay(Duration.ofMillis(50)).block();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> toolCalls.await("listVets", Mono.just("vets")));
+
+        assertEquals("Too many concurrent calls, listVets was rejected", exception.getMessage());
+    }
+
+    @Test
+    void shouldGiveWritesTheWriteTimeout() {
+        assertEquals("owner", toolCalls.awaitWrite("addOwnerToPetclinic",
+            Mono.just("owner").delayElement(Duration.ofMillis(300))));
+    }
+
+    @Test
+    void shouldWarnThatATimedOutWriteMayHaveBeenApplied() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> toolCalls.awaitWrite("addOwnerToPetclinic", Mono.never()));
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals("addOwnerToPetclinic failed, but the request may have been applied; list owners before retrying",
+            exception.getMessage());
+    }
+}
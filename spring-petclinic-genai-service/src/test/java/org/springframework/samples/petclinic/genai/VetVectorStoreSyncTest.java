@@ -0,0 +1,120 @@
+package org.springframework.samples.petclinic.genai;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.genai.vectorstore.HnswVectorStore;
+import org.springframework.samples.petclinic.genai.vectorstore.VectorStoreProperties;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VetVectorStoreSyncTest {
+
+    private static final String CARTER = "{\"id\":1,\"firstName\":\"James\",\"lastName\":\"Carter\",\"specialties\":[]}";
+
+    private static final String LEARY = "{\"id\":2,\"firstName\":\"Helen\",\"lastName\":\"Leary\",\"specialties\":[{\"id\":1,\"name\":\"radiology\"}]}";
+
+    private static final String DOUGLAS = "{\"id\":3,\"firstName\":\"Linda\",\"lastName\":\"Douglas\",\"specialties\":[{\"id\":3,\"name\":\"dentistry\"}]}";
+
+    private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+    private final HnswVectorStore vectorStore = new HnswVectorStore(embeddingModel, 8, 50, 16);
+
+    private String vets;
+
+    VetVectorStoreSyncTest() {
+        given(embeddingModel.embed(anyList())).willAnswer(invocation -> ((List<?>) invocation.getArgument(0))
+            .stream()
+            .map(content -> new float[] {1, content.hashCode() % 7, 0})
+            .toList());
+    }
+
+    @Test
+    void shouldEmbedNewVetsInBatches() throws IOException {
+        vets = "[" + CARTER + "," + LEARY + "," + DOUGLAS + "]";
+
+        sync(2).sync();
+
+        assertEquals(3, vectorStore.size());
+        verify(embeddingModel, times(2)).embed(anyList());
+        assertEquals(Map.of("James", "1", "Helen", "2", "Linda", "3"), vetIdsByFirstName());
+    }
+
+    @Test
+    void shouldNotEmbedUnchangedVetsAgain() throws IOException {
+        vets = "[" + CARTER + "," + LEARY + "]";
+        VetVectorStoreSync sync = sync(20);
+        sync.sync();
+
+        sync.sync();
+
+        assertEquals(2, vectorStore.size());
+        verify(embeddingModel, times(1)).embed(anyList());
+    }
+
+    @Test
+    void shouldReplaceChangedAndDeleteRemovedVets() throws IOException {
+        vets = "[" + CARTER + "," + LEARY + "," + DOUGLAS + "]";
+        VetVectorStoreSync sync = sync(20);
+        sync.sync();
+
+        vets = "[" + CARTER.replace("[]", "[{\"id\":2,\"name\":\"surgery\"}]") + "," + DOUGLAS + "]";
+        sync.sync();
+
+        assertEquals(2, vectorStore.size());
+        assertEquals(Map.of("James", "1", "Linda", "3"), vetIdsByFirstName());
+        verify(embeddingModel).embed(List.of("{id=1, firstName=James, lastName=Carter, specialties=[{id=2, name=surgery}]}"));
+    }
+
+    @Test
+    void shouldMatchDocumentsStoredWithoutHash() throws IOException {
+        Document preEmbedded = new Document("pre-embedded", "{id=1, firstName=James, lastName=Carter, specialties=[]}",
+            Map.of());
+        preEmbedded.setEmbedding(new float[] {1, 0, 0});
+        vectorStore.add(List.of(preEmbedded));
+        vets = "[" + CARTER + "]";
+
+        sync(20).sync();
+
+        assertEquals(List.of("pre-embedded"), vectorStore.documents().stream().map(Document::getId).toList());
+        verify(embeddingModel, never()).embed(anyList());
+    }
+
+    private VetVectorStoreSync sync(int batchSize) {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(vets)
+                .build()))
+            .build();
+        VectorStoreProperties properties = new VectorStoreProperties(null,
+            new VectorStoreProperties.Hnsw(8, 50, 16),
+            new VectorStoreProperties.QueryCache(1000, null),
+            new VectorStoreProperties.Sync(true, Duration.ofMinutes(10), batchSize));
+        return new VetVectorStoreSync(vectorStore, embeddingModel, webClient, properties, null);
+    }
+
+    private Map<Object, Object> vetIdsByFirstName() {
+        return vectorStore.documents().stream()
+            .collect(Collectors.toMap(document -> document.getContent().split("firstName=|,")[2],
+                document -> document.getMetadata().get(VetVectorStoreSync.VET_ID)));
+    }
+}
@@ -0,0 +1,78 @@
+package org.springframework.samples.petclinic.genai.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedChatMemoryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final BoundedChatMemory chatMemory =
+        new BoundedChatMemory(new ChatMemoryProperties(2, Duration.ofMinutes(30), 3, 10), nanos::get);
+
+    @Test
+    void shouldKeepConversationsApart() {
+        chatMemory.add("alice", new UserMessage("hello"));
+        chatMemory.add("bob", new UserMessage("hi"));
+
+        assertEquals(List.of("hello"), texts(chatMemory.get("alice", 10)));
+        assertEquals(List.of("hi"), texts(chatMemory.get("bob", 10)));
+    }
+
+    @Test
+    void shouldKeepLatestMessagesOnly() {
+        chatMemory.add("alice", List.of(new UserMessage("1"), new AssistantMessage("2"), new UserMessage("3")));
+        chatMemory.add("alice", new AssistantMessage("4"));
+
+        assertEquals(List.of("2", "3", "4"), texts(chatMemory.get("alice", 10)));
+        assertEquals(List.of("3", "4"), texts(chatMemory.get("alice", 2)));
+        assertEquals(3 * Character.BYTES, chatMemory.retainedBytes());
+    }
+
+    @Test
+    void shouldTruncateLongMessages() {
+        chatMemory.add("alice", new AssistantMessage("a very long answer"));
+
+        assertEquals(List.of("a very lon..."), texts(chatMemory.get("alice", 10)));
+    }
+
+    @Test
+    void shouldEvictIdleAndLeastRecentlyUsedConversations() {
+        chatMemory.add("alice", new UserMessage("hello"));
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        assertTrue(chatMemory.get("alice", 10).isEmpty());
+
+        chatMemory.add("bob", new UserMessage("hi"));
+        chatMemory.add("carol", new UserMessage("hey"));
+        chatMemory.add("dave", new UserMessage("yo"));
+
+        assertEquals(2, chatMemory.conversations());
+    }
+
+    @Test
+    void shouldPublishConversationsAndRetainedBytes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        chatMemory.bindTo(registry);
+        chatMemory.add("alice", new UserMessage("hello"));
+        chatMemory.add("bob", new UserMessage("hi"));
+        chatMemory.clear("bob");
+
+        assertEquals(1, registry.get("genai.chat.conversations").gauge().value());
+        assertEquals(5 * Character.BYTES, registry.get("genai.chat.memory.retained").gauge().value());
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getContent).toList();
+    }
+}
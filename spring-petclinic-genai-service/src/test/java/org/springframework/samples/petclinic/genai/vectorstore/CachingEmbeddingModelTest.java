@@ -0,0 +1,117 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingEmbeddingModelTest {
+
+    private final EmbeddingModel delegate = mock(EmbeddingModel.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldEmbedEquivalentQueriesOnce() {
+        given(delegate.embed(anyString())).willReturn(new float[] {1, 2, 3});
+        CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(delegate, 10, null);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        embeddingModel.bindTo(registry);
+
+        assertArrayEquals(new float[] {1, 2, 3}, embeddingModel.embed("Vets  for\tRadiology"));
+        assertArrayEquals(new float[] {1, 2, 3}, embeddingModel.embed(" vets for radiology "));
+
+        verify(delegate, times(1)).embed(anyString());
+        assertEquals(1, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldEmbedConcurrentMissesOnce() throws IOException {
+        Path file = directory.resolve("query-embeddings.bin");
+        given(delegate.embed("surgery")).willAnswer(invocation -> {
+            Thread.sleep(100);
+            return new float[] {1, 0};
+        });
+        CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(delegate, 10, file);
+
+        CompletableFuture<float[]> first = CompletableFuture.supplyAsync(() -> embeddingModel.embed("surgery"));
+        CompletableFuture<float[]> second = CompletableFuture.supplyAsync(() -> embeddingModel.embed("Surgery"));
+
+        assertArrayEquals(new float[] {1, 0}, first.join());
+        assertArrayEquals(new float[] {1, 0}, second.join());
+        verify(delegate, times(1)).embed(anyString());
+        // marker, key, length and two floats: a single record
+        assertEquals(1 + 2 + 64 + 4 + 2 * Float.BYTES, Files.size(file));
+    }
+
+    @Test
+    void shouldKeepEmbeddingsAcrossRestarts() throws IOException {
+        Path file = directory.resolve("query-embeddings.bin");
+        given(delegate.embed("surgery")).willReturn(new float[] {1, 0});
+        given(delegate.embed("dentistry")).willReturn(new float[] {0, 1});
+        CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(delegate, 10, file);
+        embeddingModel.embed("surgery");
+        embeddingModel.embed("dentistry");
+        // a record cut short by a crash
+        Files.write(file, new byte[] {1, 0}, StandardOpenOption.APPEND);
+
+        CachingEmbeddingModel restarted = new CachingEmbeddingModel(delegate, 10, file);
+
+        assertArrayEquals(new float[] {1, 0}, restarted.embed("surgery"));
+        assertArrayEquals(new float[] {0, 1}, restarted.embed("dentistry"));
+        verify(delegate, times(1)).embed("surgery");
+        verify(delegate, times(1)).embed("dentistry");
+    }
+
+    @Test
+    void shouldReloadOnlyTheMostRecentEmbeddings() {
+        Path file = directory.resolve("query-embeddings.bin");
+        given(delegate.embed(anyString())).willReturn(new float[] {1, 0});
+        CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(delegate, 10, file);
+        embeddingModel.embed("surgery");
+        embeddingModel.embed("dentistry");
+
+        EmbeddingModel restartedDelegate = mock(EmbeddingModel.class);
+        given(restartedDelegate.embed("surgery")).willReturn(new float[] {0, 1});
+        CachingEmbeddingModel restarted = new CachingEmbeddingModel(restartedDelegate, 1, file);
+
+        assertArrayEquals(new float[] {1, 0}, restarted.embed("dentistry"));
+        assertArrayEquals(new float[] {0, 1}, restarted.embed("surgery"));
+        verify(restartedDelegate, never()).embed("dentistry");
+    }
+
+    @Test
+    void shouldBoundTheSpillFileWhileRunning() throws IOException {
+        Path file = directory.resolve("query-embeddings.bin");
+        given(delegate.embed(anyString())).willReturn(new float[] {1, 0});
+        CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(delegate, 2, file);
+
+        for (int i = 0; i <= 20; i++) {
+            embeddingModel.embed("query " + i);
+        }
+
+        // marker, key, length and two floats per record, at most twice as many records as the cache holds
+        int recordBytes = 1 + 2 + 64 + 4 + 2 * Float.BYTES;
+        assertTrue(Files.size(file) <= 4L * recordBytes);
+        assertArrayEquals(new float[] {1, 0}, new CachingEmbeddingModel(delegate, 2, file).embed("query 20"));
+        verify(delegate, times(21)).embed(anyString());
+    }
+}
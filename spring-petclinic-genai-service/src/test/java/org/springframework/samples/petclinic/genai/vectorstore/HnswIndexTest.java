@@ -0,0 +1,86 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    private static final int VECTORS = 2000;
+
+    private final Random random = new Random(7);
+
+    private float[][] vectors;
+
+    private HnswIndex index;
+
+    @BeforeEach
+    void setUp() {
+        vectors = new float[VECTORS][];
+        index = new HnswIndex(DIMENSIONS, 8, 100, 1);
+        for (int i = 0; i < VECTORS; i++) {
+            vectors[i] = randomVector();
+            assertEquals(i, index.add(vectors[i]));
+        }
+    }
+
+    @Test
+    void shouldFindStoredVectorFirst() {
+        for (int i = 0; i < VECTORS; i += 97) {
+            assertEquals(i, index.search(vectors[i], 1, 32).get(0).node());
+        }
+    }
+
+    @Test
+    void shouldApproximateExactSearch() {
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            List<Integer> exact = exactTop(query, 10);
+            found += (int) index.search(query, 10, 64).stream().filter(match -> exact.contains(match.node())).count();
+        }
+        double recall = found / (queries * 10.0);
+        assertTrue(recall > 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    void shouldNotReturnDeletedNodes() {
+        index.delete(42);
+
+        assertTrue(index.search(vectors[42], 10, 32).stream().noneMatch(match -> match.node() == 42));
+    }
+
+    private List<Integer> exactTop(float[] query, int k) {
+        float[] normalized = HnswIndex.normalize(query);
+        return IntStream.range(0, VECTORS).boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> dot(normalized, HnswIndex.normalize(vectors[i]))).reversed())
+            .limit(k)
+            .toList();
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
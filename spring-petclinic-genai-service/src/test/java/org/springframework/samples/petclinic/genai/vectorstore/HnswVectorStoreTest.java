@@ -0,0 +1,93 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class HnswVectorStoreTest {
+
+    private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+    private final HnswVectorStore vectorStore = new HnswVectorStore(embeddingModel, 8, 50, 16);
+
+    @Test
+    void shouldReturnMostSimilarDocumentsWithDistance() {
+        vectorStore.add(List.of(
+            document("surgery", 1, 0, 0),
+            document("radiology", 0, 1, 0),
+            document("dentistry", 0, 0, 1)));
+        given(embeddingModel.embed("radiology?")).willReturn(new float[] {0.1f, 1, 0});
+
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.query("radiology?").withTopK(2));
+
+        assertEquals(List.of("radiology", "surgery"), results.stream().map(Document::getId).toList());
+        assertTrue((Float) results.get(0).getMetadata().get("distance") < 0.01f);
+    }
+
+    @Test
+    void shouldReplaceAndDeleteDocuments() {
+        vectorStore.add(List.of(document("surgery", 1, 0, 0), document("radiology", 0, 1, 0)));
+        vectorStore.add(List.of(document("surgery", 0, 0, 1)));
+        given(embeddingModel.embed("query")).willReturn(new float[] {0, 0, 1});
+
+        assertEquals("surgery", vectorStore.similaritySearch(SearchRequest.query("query").withTopK(1)).get(0).getId());
+        assertEquals(2, vectorStore.size());
+
+        assertEquals(true, vectorStore.delete(List.of("surgery")).orElseThrow());
+        assertEquals(List.of("radiology"),
+            vectorStore.similaritySearch(SearchRequest.query("query").withTopK(5)).stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void shouldLoadWhatWasSaved(@TempDir Path directory) throws IOException {
+        vectorStore.add(List.of(document("surgery", 1, 0, 0), document("radiology", 0, 1, 0)));
+        Path file = directory.resolve("vectorstore.hnsw");
+        vectorStore.save(file);
+
+        HnswVectorStore loaded = new HnswVectorStore(embeddingModel, 8, 50, 16);
+        loaded.load(file);
+        given(embeddingModel.embed("query")).willReturn(new float[] {1, 0, 0});
+
+        Document result = loaded.similaritySearch(SearchRequest.query("query").withTopK(1)).get(0);
+        assertEquals("surgery", result.getId());
+        assertEquals("vet with surgery", result.getContent());
+        assertEquals("surgery", result.getMetadata().get("specialty"));
+    }
+
+    @Test
+    void shouldAcceptChangesAfterLoading(@TempDir Path directory) throws IOException {
+        vectorStore.add(List.of(document("surgery", 1, 0, 0), document("radiology", 0, 1, 0)));
+        Path file = directory.resolve("vectorstore.hnsw");
+        vectorStore.save(file);
+        HnswVectorStore loaded = new HnswVectorStore(embeddingModel, 8, 50, 16);
+        loaded.load(file);
+
+        loaded.add(List.of(document("dentistry", 0, 0, 1)));
+        loaded.delete(List.of("surgery"));
+        given(embeddingModel.embed("query")).willReturn(new float[] {1, 0, 1});
+
+        assertEquals(List.of("dentistry", "radiology"),
+            loaded.similaritySearch(SearchRequest.query("query").withTopK(5)).stream().map(Document::getId).toList());
+    }
+
+    private static Document document(String id, float... embedding) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("specialty", id);
+        Document document = new Document(id, "vet with " + id, metadata);
+        document.setEmbedding(embedding);
+        return document;
+    }
+}
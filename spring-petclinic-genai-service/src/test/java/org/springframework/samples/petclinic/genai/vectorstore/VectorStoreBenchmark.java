@@ -0,0 +1,172 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link HnswVectorStore} against the brute-force {@link SimpleVectorStore} at 1k, 100k and
+ * 1M documents, with recall@10 of the HNSW results (exact results from {@link SimpleVectorStore} as reference)
+ * printed during setup. Embeddings come from a stub model serving clustered random vectors of 128 dimensions,
+ * fewer than real text embeddings so that a million documents fit in memory twice. Building the 1M index takes
+ * several minutes. Run with the test classpath, e.g. from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class VectorStoreBenchmark {
+
+    private static final int DIMENSIONS = 128;
+
+    private static final int CLUSTERS = 100;
+
+    private static final int QUERIES = 100;
+
+    private static final int TOP_K = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    private int documents;
+
+    private SimpleVectorStore simpleVectorStore;
+
+    private HnswVectorStore hnswVectorStore;
+
+    private List<SearchRequest> queries;
+
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1);
+        float[][] centers = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centers[c] = gaussian(random, null, 1);
+        }
+        Map<String, float[]> embeddings = new HashMap<>();
+        List<Document> simpleDocuments = new ArrayList<>(documents);
+        List<Document> hnswDocuments = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            String content = "vet-" + i;
+            embeddings.put(content, gaussian(random, centers[random.nextInt(CLUSTERS)], 0.3));
+            simpleDocuments.add(new Document(content, content, new HashMap<>()));
+            hnswDocuments.add(new Document(content, content, new HashMap<>()));
+        }
+        queries = new ArrayList<>(QUERIES);
+        for (int q = 0; q < QUERIES; q++) {
+            String query = "query-" + q;
+            embeddings.put(query, gaussian(random, embeddings.get("vet-" + random.nextInt(documents)), 0.1));
+            queries.add(SearchRequest.query(query).withTopK(TOP_K));
+        }
+        EmbeddingModel embeddingModel = new StubEmbeddingModel(embeddings);
+
+        simpleVectorStore = new SimpleVectorStore(embeddingModel);
+        simpleVectorStore.add(simpleDocuments);
+        hnswVectorStore = new HnswVectorStore(embeddingModel, 16, 200, 64);
+        long start = System.nanoTime();
+        hnswVectorStore.add(hnswDocuments);
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int found = 0;
+        for (SearchRequest query : queries) {
+            Set<String> exact = new HashSet<>();
+            simpleVectorStore.similaritySearch(query).forEach(document -> exact.add(document.getId()));
+            found += (int) hnswVectorStore.similaritySearch(query).stream()
+                .filter(document -> exact.contains(document.getId()))
+                .count();
+        }
+        System.out.printf("%n%d documents: HNSW built in %d ms, recall@%d = %.3f%n",
+            documents, buildMillis, TOP_K, found / (double) (QUERIES * TOP_K));
+    }
+
+    @Benchmark
+    public List<Document> simpleVectorStore() {
+        return simpleVectorStore.similaritySearch(nextQuery());
+    }
+
+    @Benchmark
+    public List<Document> hnswVectorStore() {
+        return hnswVectorStore.similaritySearch(nextQuery());
+    }
+
+    private SearchRequest nextQuery() {
+        nextQuery = (nextQuery + 1) % QUERIES;
+        return queries.get(nextQuery);
+    }
+
+    private static float[] gaussian(Random random, float[] center, double deviation) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) ((center != null ? center[i] : 0) + random.nextGaussian() * deviation);
+        }
+        return vector;
+    }
+
+    /**
+     * Serves precomputed embeddings keyed by text, so that no embedding API is called.
+     */
+    private static final class StubEmbeddingModel implements EmbeddingModel {
+
+        private final Map<String, float[]> embeddings;
+
+        StubEmbeddingModel(Map<String, float[]> embeddings) {
+            this.embeddings = embeddings;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> results = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                results.add(new Embedding(embeddings.get(text), results.size()));
+            }
+            return new EmbeddingResponse(results);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embeddings.get(document.getContent());
+        }
+
+        @Override
+        public int dimensions() {
+            return DIMENSIONS;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VectorStoreBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,95 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorStoreFileTest {
+
+    private static final int DIMENSIONS = 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Random random = new Random(7);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldMapWhatWasWritten() throws IOException {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 100, 1);
+        for (int i = 0; i < 1000; i++) {
+            index.add(randomVector());
+        }
+        index.delete(3);
+        Path file = directory.resolve("vectorstore.hnsw");
+        VectorStoreFile.write(file, index,
+            node -> new Document("vet-" + node, "vet number " + node, Map.of("node", node)), objectMapper);
+
+        VectorStoreFile mapped = VectorStoreFile.open(file, 1, objectMapper);
+
+        float[] query = randomVector();
+        assertEquals(index.search(query, 10, 32), mapped.index().search(query, 10, 32));
+        assertArrayEquals(index.vector(999), mapped.index().vector(999));
+        assertTrue(mapped.index().isDeleted(3));
+        Document document = mapped.document(42);
+        assertEquals("vet-42", document.getId());
+        assertEquals("vet number 42", document.getContent());
+        assertEquals(Map.of("node", 42), document.getMetadata());
+    }
+
+    @Test
+    void shouldMapEmptyStore() throws IOException {
+        Path file = directory.resolve("vectorstore.hnsw");
+        VectorStoreFile.write(file, null, node -> null, objectMapper);
+
+        assertNull(VectorStoreFile.open(file, 1, objectMapper).index());
+    }
+
+    @Test
+    void shouldRejectOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("vectorstore.json"), new byte[128]);
+
+        assertThrows(IOException.class, () -> VectorStoreFile.open(file, 1, objectMapper));
+    }
+
+    @Test
+    void shouldConvertSimpleVectorStoreJson() throws IOException {
+        Path file = directory.resolve("vectorstore.hnsw");
+        int documents;
+        try (InputStream json = new ClassPathResource("vectorstore.json").getInputStream()) {
+            documents = SimpleVectorStoreJson.read(json).size();
+        }
+        try (InputStream json = new ClassPathResource("vectorstore.json").getInputStream()) {
+            VectorStoreFileConverter.convert(json, file, new VectorStoreProperties.Hnsw(16, 200, 64));
+        }
+
+        HnswVectorStore vectorStore = new HnswVectorStore(null, 16, 200, 64);
+        vectorStore.load(file);
+
+        assertEquals(documents, vectorStore.size());
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,145 @@
+package org.springframework.samples.petclinic.genai.vectorstore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the vector store: parsing a {@link SimpleVectorStore} JSON file, as the service did before,
+ * against mapping the same documents from a {@link VectorStoreFile}. Embeddings have 1536 dimensions, the size
+ * of OpenAI's embedding models. Run with the test classpath, e.g. from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class VectorStoreLoadBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+
+    @Param({"1000", "10000"})
+    private int documents;
+
+    private Path directory;
+
+    private File json;
+
+    private Path binary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(1);
+        Map<String, float[]> embeddings = new HashMap<>();
+        List<Document> stored = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            String content = "vet-" + i;
+            float[] embedding = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                embedding[d] = (float) random.nextGaussian();
+            }
+            embeddings.put(content, embedding);
+            stored.add(new Document(content, content, new HashMap<>()));
+        }
+        directory = Files.createTempDirectory("vectorstore");
+        json = directory.resolve("vectorstore.json").toFile();
+        binary = directory.resolve("vectorstore.hnsw");
+        SimpleVectorStore simpleVectorStore = new SimpleVectorStore(new StubEmbeddingModel(embeddings));
+        simpleVectorStore.add(stored);
+        simpleVectorStore.save(json);
+        try (InputStream in = Files.newInputStream(json.toPath())) {
+            VectorStoreFileConverter.convert(in, binary, new VectorStoreProperties.Hnsw(16, 200, 64));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(binary);
+        Files.delete(json.toPath());
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public SimpleVectorStore parseJson() {
+        SimpleVectorStore vectorStore = new SimpleVectorStore(new StubEmbeddingModel(Map.of()));
+        vectorStore.load(json);
+        return vectorStore;
+    }
+
+    @Benchmark
+    public HnswVectorStore mapBinary() throws IOException {
+        HnswVectorStore vectorStore = new HnswVectorStore(new StubEmbeddingModel(Map.of()), 16, 200, 64);
+        vectorStore.load(binary);
+        return vectorStore;
+    }
+
+    /**
+     * Serves precomputed embeddings keyed by text, so that no embedding API is called.
+     */
+    private static final class StubEmbeddingModel implements EmbeddingModel {
+
+        private final Map<String, float[]> embeddings;
+
+        StubEmbeddingModel(Map<String, float[]> embeddings) {
+            this.embeddings = embeddings;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> results = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                results.add(new Embedding(embeddings.get(text), results.size()));
+            }
+            return new EmbeddingResponse(results);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embeddings.get(document.getContent());
+        }
+
+        @Override
+        public int dimensions() {
+            return DIMENSIONS;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VectorStoreLoadBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -26,6 +26,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "specialties")
+@EntityListeners(VetsChangeListener.class)
 public class Specialty {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
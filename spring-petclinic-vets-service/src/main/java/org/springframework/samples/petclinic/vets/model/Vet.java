@@ -35,6 +35,7 @@ import java.util.*;
  */
 @Entity
 @Table(name = "vets")
+@EntityListeners(VetsChangeListener.class)
 public class Vet {
 
     @Id
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vets.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index from specialty name (case insensitive) to the vets having that specialty. It is
+ * built from {@link VetRepository} once the application is ready, or by the first lookup if that comes
+ * earlier, and rebuilt whenever a vet or a specialty is written, after the writing transaction commits.
+ * The cached vet list is evicted at the same time. Lookups are a single hash map access on an immutable
+ * snapshot.
+ */
+@Component
+public class VetSpecialtyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(VetSpecialtyIndex.class);
+
+    private static final String VETS_CACHE = "vets";
+
+    private final VetRepository vetRepository;
+
+    private final CacheManager cacheManager;
+
+    // null until first built
+    private volatile Map<String, List<Vet>> vetsBySpecialty;
+
+    public VetSpecialtyIndex(VetRepository vetRepository, CacheManager cacheManager) {
+        this.vetRepository = vetRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public List<Vet> findBySpecialty(String specialty) {
+        Map<String, List<Vet>> index = vetsBySpecialty;
+        if (index == null) {
+            index = build();
+        }
+        return index.getOrDefault(normalize(specialty), List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        build();
+    }
+
+    private synchronized Map<String, List<Vet>> build() {
+        Map<String, List<Vet>> index = new HashMap<>();
+        List<Vet> vets = vetRepository.findAll();
+        for (Vet vet : vets) {
+            for (Specialty specialty : vet.getSpecialties()) {
+                index.computeIfAbsent(normalize(specialty.getName()), name -> new ArrayList<>()).add(vet);
+            }
+        }
+        index.replaceAll((name, vetsWithSpecialty) -> List.copyOf(vetsWithSpecialty));
+        Map<String, List<Vet>> snapshot = Map.copyOf(index);
+        vetsBySpecialty = snapshot;
+        log.debug("Indexed {} vets under {} specialties", vets.size(), index.size());
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onVetsChanged(VetsChangedEvent event) {
+        rebuild();
+        Cache vets = cacheManager.getCache(VETS_CACHE);
+        if (vets != null) {
+            vets.clear();
+        }
+    }
+
+    private static String normalize(String specialty) {
+        return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+    }
+}
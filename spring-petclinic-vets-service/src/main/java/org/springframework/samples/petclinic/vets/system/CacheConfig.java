@@ -15,16 +15,53 @@
  */
 package org.springframework.samples.petclinic.vets.system;
 
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
+import org.springframework.samples.petclinic.vets.model.VetRepository;
 
 /**
- * Cache could be disable in unit test.
+ * Caffeine backed "vets" cache, bounded by {@code vets.cache.heap-size} entries and expiring after
+ * {@code vets.cache.ttl} seconds. Entries read after half of their TTL are reloaded in the background, so
+ * a frequently read vet list is replaced before it expires instead of being loaded on the request path.
+ * Statistics are recorded and published to Micrometer as {@code cache.*} metrics by Spring Boot.
+ *
  * @author Maciej Szarlinski
  */
 @Configuration
 @EnableCaching
-@Profile("production")
 class CacheConfig {
+
+    static final String VETS = "vets";
+
+    @Bean
+    CacheManager cacheManager(VetsProperties properties, VetRepository vetRepository) {
+        VetsProperties.Cache cache = properties.cache();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // the vets cache holds a single entry, the result of VetResource.showResourcesVetList()
+        cacheManager.registerCustomCache(VETS, Caffeine.newBuilder()
+            .maximumSize(cache.heapSize())
+            .expireAfterWrite(Duration.ofSeconds(cache.ttl()))
+            .refreshAfterWrite(Duration.ofSeconds(Math.max(1, cache.ttl() / 2)))
+            .recordStats()
+            .build(key -> loadVets(key, vetRepository)));
+        return cacheManager;
+    }
+
+    /**
+     * The loader serves the key of the argument-less vet list only, so that a cached method with parameters
+     * fails instead of having the full vet list stored under its keys.
+     */
+    private static Object loadVets(Object key, VetRepository vetRepository) {
+        if (!SimpleKey.EMPTY.equals(key)) {
+            throw new IllegalArgumentException("The " + VETS + " cache only holds the vet list, not " + key);
+        }
+        return vetRepository.findAll();
+    }
 }
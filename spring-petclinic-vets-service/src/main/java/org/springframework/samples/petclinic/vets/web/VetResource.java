@@ -20,8 +20,10 @@ import java.util.List;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.samples.petclinic.vets.model.Vet;
 import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetSpecialtyIndex;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -36,9 +38,11 @@ import org.springframework.web.bind.annotation.RestController;
 class VetResource {
 
     private final VetRepository vetRepository;
+    private final VetSpecialtyIndex vetSpecialtyIndex;
 
-    VetResource(VetRepository vetRepository) {
+    VetResource(VetRepository vetRepository, VetSpecialtyIndex vetSpecialtyIndex) {
         this.vetRepository = vetRepository;
+        this.vetSpecialtyIndex = vetSpecialtyIndex;
     }
 
     @GetMapping
@@ -46,4 +50,12 @@ class VetResource {
     public List<Vet> showResourcesVetList() {
         return vetRepository.findAll();
     }
+
+    /**
+     * Vets having the given specialty, matched by name ignoring case.
+     */
+    @GetMapping(params = "specialty")
+    public List<Vet> showResourcesVetListBySpecialty(@RequestParam("specialty") String specialty) {
+        return vetSpecialtyIndex.findBySpecialty(specialty);
+    }
 }
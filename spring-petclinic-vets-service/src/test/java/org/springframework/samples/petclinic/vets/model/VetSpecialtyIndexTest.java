@@ -0,0 +1,81 @@
+package org.springframework.samples.petclinic.vets.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class VetSpecialtyIndexTest {
+
+    private final VetRepository vetRepository = mock(VetRepository.class);
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("vets");
+
+    private final VetSpecialtyIndex index = new VetSpecialtyIndex(vetRepository, cacheManager);
+
+    @Test
+    void shouldFindVetsBySpecialtyIgnoringCase() {
+        Vet linda = vet(2, "radiology", "surgery");
+        Vet rafael = vet(3, "surgery");
+        given(vetRepository.findAll()).willReturn(List.of(vet(1), linda, rafael));
+
+        index.rebuild();
+
+        assertEquals(List.of(linda, rafael), index.findBySpecialty("Surgery"));
+        assertEquals(List.of(linda), index.findBySpecialty(" radiology "));
+        assertTrue(index.findBySpecialty("dentistry").isEmpty());
+    }
+
+    @Test
+    void shouldReflectChangesAfterRebuild() {
+        given(vetRepository.findAll()).willReturn(List.of());
+        index.rebuild();
+        assertTrue(index.findBySpecialty("dentistry").isEmpty());
+
+        Vet helen = vet(4, "dentistry");
+        given(vetRepository.findAll()).willReturn(List.of(helen));
+        index.onVetsChanged(new VetsChangedEvent(helen));
+
+        assertEquals(List.of(helen), index.findBySpecialty("dentistry"));
+    }
+
+    @Test
+    void shouldBuildOnFirstLookupBeforeApplicationIsReady() {
+        Vet helen = vet(4, "dentistry");
+        given(vetRepository.findAll()).willReturn(List.of(helen));
+
+        assertEquals(List.of(helen), index.findBySpecialty("dentistry"));
+    }
+
+    @Test
+    void shouldEvictCachedVetListWhenVetsChange() {
+        Vet helen = vet(4, "dentistry");
+        given(vetRepository.findAll()).willReturn(List.of(helen));
+        Cache vets = cacheManager.getCache("vets");
+        vets.put(SimpleKey.EMPTY, List.of());
+
+        index.onVetsChanged(new VetsChangedEvent(helen));
+
+        assertNull(vets.get(SimpleKey.EMPTY));
+    }
+
+    private static Vet vet(int id, String... specialties) {
+        Vet vet = new Vet();
+        vet.setId(id);
+        for (String name : specialties) {
+            Specialty specialty = new Specialty();
+            specialty.setName(name);
+            vet.addSpecialty(specialty);
+        }
+        return vet;
+    }
+}
@@ -0,0 +1,50 @@
+package org.springframework.samples.petclinic.vets.system;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.samples.petclinic.vets.model.Vet;
+import org.springframework.samples.petclinic.vets.model.VetRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheConfigTest {
+
+    @Test
+    void shouldLoadVetsOnceAndRecordStatistics() {
+        VetRepository vetRepository = mock(VetRepository.class);
+        List<Vet> vets = List.of(new Vet());
+        given(vetRepository.findAll()).willReturn(vets);
+        CacheManager cacheManager = new CacheConfig()
+            .cacheManager(new VetsProperties(new VetsProperties.Cache(60, 10)), vetRepository);
+
+        Cache cache = cacheManager.getCache(CacheConfig.VETS);
+        assertEquals(vets, cache.get(SimpleKey.EMPTY).get());
+        assertEquals(vets, cache.get(SimpleKey.EMPTY).get());
+
+        verify(vetRepository, times(1)).findAll();
+        var stats = ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).stats();
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+    }
+
+    @Test
+    void shouldRejectKeysOtherThanTheVetList() {
+        VetRepository vetRepository = mock(VetRepository.class);
+        CacheManager cacheManager = new CacheConfig()
+            .cacheManager(new VetsProperties(new VetsProperties.Cache(60, 10)), vetRepository);
+
+        Cache cache = cacheManager.getCache(CacheConfig.VETS);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("radiology"));
+        verify(vetRepository, times(0)).findAll();
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.vets.model.Vet;
 import org.springframework.samples.petclinic.vets.model.VetRepository;
+import org.springframework.samples.petclinic.vets.model.VetSpecialtyIndex;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -30,6 +31,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static java.util.Arrays.asList;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +49,9 @@ class VetResourceTest {
     @MockBean
     VetRepository vetRepository;
 
+    @MockBean
+    VetSpecialtyIndex vetSpecialtyIndex;
+
     @Test
     void shouldGetAListOfVets() throws Exception {
 
@@ -59,4 +64,31 @@ class VetResourceTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].id").value(1));
     }
+
+    @Test
+    void shouldGetVetsBySpecialty() throws Exception {
+        Vet vet = new Vet();
+        vet.setId(3);
+        given(vetSpecialtyIndex.findBySpecialty("surgery")).willReturn(asList(vet));
+
+        mvc.perform(get("/vets?specialty=surgery").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenVetListIsUnchanged() throws Exception {
+        Vet vet = new Vet();
+        vet.setId(1);
+        given(vetRepository.findAll()).willReturn(asList(vet));
+
+        String etag = mvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=10, public"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag));
+    }
 }
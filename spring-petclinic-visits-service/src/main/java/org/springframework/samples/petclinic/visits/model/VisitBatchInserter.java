@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.visits.model;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inserts visits with plain JDBC batches. {@link Visit} ids are generated by the database
+ * ({@code GenerationType.IDENTITY}), which keeps Hibernate from batching inserts, so bulk imports bypass JPA.
+ */
+@Component
+public class VisitBatchInserter {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitBatchInserter.class);
+
+    static final String INSERT_VISIT = "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VisitStatisticsRepository visitStatisticsRepository;
+
+    public VisitBatchInserter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              VisitStatisticsRepository visitStatisticsRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.visitStatisticsRepository = visitStatisticsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Insert the visits as one JDBC batch, and add them to the visit statistics, in a single transaction. If the database rejects the batch, the
+     * visits are inserted one at a time so that only the offending ones fail; each of them is reported to
+     * {@code failureHandler} with its index in {@code visits}.
+     *
+     * @return the number of visits inserted
+     */
+    public int insert(List<Visit> visits, BiConsumer<Integer, DataAccessException> failureHandler) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_VISIT, visits, visits.size(), VisitBatchInserter::setValues);
+                visitStatisticsRepository.increment(visits);
+            });
+            return visits.size();
+        } catch (DataAccessException e) {
+            log.debug("Batch of {} visits rejected, inserting them one at a time", visits.size(), e);
+        }
+        int inserted = 0;
+        for (int i = 0; i < visits.size(); i++) {
+            Visit visit = visits.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_VISIT, statement -> setValues(statement, visit));
+                    visitStatisticsRepository.increment(List.of(visit));
+                });
+                inserted++;
+            } catch (DataAccessException e) {
+                failureHandler.accept(i, e);
+            }
+        }
+        return inserted;
+    }
+
+    private static void setValues(PreparedStatement statement, Visit visit) throws SQLException {
+        statement.setInt(1, visit.getPetId());
+        statement.setDate(2, visit.getDate() != null ? new java.sql.Date(visit.getDate().getTime()) : null);
+        statement.setString(3, visit.getDescription());
+    }
+}
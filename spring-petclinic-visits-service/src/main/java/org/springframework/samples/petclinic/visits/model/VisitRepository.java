@@ -16,9 +16,13 @@
 package org.springframework.samples.petclinic.visits.model;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository class for <code>Visit</code> domain objects All method names are compliant with Spring Data naming conventions so this interface can easily be extended for Spring
@@ -35,4 +39,39 @@ public interface VisitRepository extends JpaRepository<Visit, Integer> {
     List<Visit> findByPetId(int petId);
 
     List<Visit> findByPetIdIn(Collection<Integer> petIds);
+
+    /**
+     * Retrieve the visits of a pet dated from {@code from} and before the ({@code before}, {@code beforeId}) key,
+     * most recent first, followed by its visits without a date whose id is below {@code undatedBeforeId}.
+     * Passing the date and id of the last visit of a page as the key returns the next page.
+     */
+    @Query("SELECT visit FROM Visit visit WHERE visit.petId = :petId " +
+        "AND ((visit.date >= :from AND (visit.date < :before OR (visit.date = :before AND visit.id < :beforeId))) " +
+        "OR (visit.date IS NULL AND visit.id < :undatedBeforeId)) " +
+        "ORDER BY visit.date DESC NULLS LAST, visit.id DESC")
+    List<Visit> findByPetIdAndDateRange(@Param("petId") int petId, @Param("from") Date from,
+                                        @Param("before") Date before, @Param("beforeId") int beforeId,
+                                        @Param("undatedBeforeId") int undatedBeforeId, Limit limit);
+
+    /**
+     * Retrieve, for each of the pets, its visits dated from {@code from} and before {@code before}, most recent
+     * first, followed by its visits without a date whose id is below {@code undatedBeforeId}; at most
+     * {@code limitPerPet} visits per pet. Visits are ranked within each pet, so that a single statement serves
+     * all pets.
+     */
+    @Query(nativeQuery = true, value = "SELECT id, pet_id, visit_date, description FROM (" +
+        "SELECT visit.id, visit.pet_id, visit.visit_date, visit.description, ROW_NUMBER() OVER (" +
+        "PARTITION BY visit.pet_id " +
+        "ORDER BY CASE WHEN visit.visit_date IS NULL THEN 1 ELSE 0 END, visit.visit_date DESC, visit.id DESC" +
+        ") AS rank_in_pet FROM visits visit WHERE visit.pet_id IN (:petIds) " +
+        "AND ((visit.visit_date >= :from AND visit.visit_date < :before) " +
+        "OR (visit.visit_date IS NULL AND visit.id < :undatedBeforeId))" +
+        ") ranked WHERE rank_in_pet <= :limitPerPet ORDER BY pet_id, rank_in_pet")
+    List<Visit> findRecentByPetIdIn(@Param("petIds") Collection<Integer> petIds, @Param("from") Date from,
+                                    @Param("before") Date before, @Param("undatedBeforeId") int undatedBeforeId,
+                                    @Param("limitPerPet") int limitPerPet);
+
+    @Query("SELECT new org.springframework.samples.petclinic.visits.model.VisitSummary(visit.id, visit.petId, visit.date) " +
+        "FROM Visit visit WHERE visit.petId IN :petIds")
+    List<VisitSummary> findSummariesByPetIdIn(@Param("petIds") Collection<Integer> petIds);
 }
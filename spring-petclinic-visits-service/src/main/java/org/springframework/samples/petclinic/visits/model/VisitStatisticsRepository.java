@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.visits.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Visit counts rolled up per pet and month ({@code visit_stats_by_pet}) and per month for the whole clinic
+ * ({@code visit_stats_by_month}). The rollups are maintained by every visit write, in the writing transaction,
+ * so reading statistics never touches the visits table and costs one row per month, whatever the number of visits.
+ * Visits without a date are not counted.
+ */
+@Repository
+public class VisitStatisticsRepository {
+
+    private static final String UPDATE_PET_MONTH =
+        "UPDATE visit_stats_by_pet SET visit_count = visit_count + ? WHERE pet_id = ? AND visit_month = ?";
+    private static final String INSERT_PET_MONTH =
+        "INSERT INTO visit_stats_by_pet (visit_count, pet_id, visit_month) VALUES (?, ?, ?)";
+    private static final String UPDATE_MONTH =
+        "UPDATE visit_stats_by_month SET visit_count = visit_count + ? WHERE visit_month = ?";
+    private static final String INSERT_MONTH =
+        "INSERT INTO visit_stats_by_month (visit_count, visit_month) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VisitStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add newly written visits to the rollups. Must run in the transaction that writes the visits.
+     */
+    public void increment(Collection<Visit> visits) {
+        // sorted keys, so that concurrent writers lock rollup rows in the same order
+        Map<PetMonth, Integer> byPet = new TreeMap<>();
+        Map<Integer, Integer> byMonth = new TreeMap<>();
+        for (Visit visit : visits) {
+            if (visit.getDate() == null) {
+                continue;
+            }
+            int month = toMonthKey(visit.getDate());
+            byPet.merge(new PetMonth(visit.getPetId(), month), 1, Integer::sum);
+            byMonth.merge(month, 1, Integer::sum);
+        }
+        byPet.forEach((key, count) -> add(UPDATE_PET_MONTH, INSERT_PET_MONTH, count, key.petId(), key.month()));
+        byMonth.forEach((month, count) -> add(UPDATE_MONTH, INSERT_MONTH, count, month));
+    }
+
+    public List<MonthlyVisitCount> findByPetId(int petId, YearMonth from, YearMonth to) {
+        return jdbcTemplate.query(
+            "SELECT visit_month, visit_count FROM visit_stats_by_pet " +
+                "WHERE pet_id = ? AND visit_month BETWEEN ? AND ? ORDER BY visit_month",
+            (row, rowNum) -> new MonthlyVisitCount(fromMonthKey(row.getInt(1)), row.getInt(2)),
+            petId, toMonthKey(from), toMonthKey(to));
+    }
+
+    public List<MonthlyVisitCount> findByMonth(YearMonth from, YearMonth to) {
+        return jdbcTemplate.query(
+            "SELECT visit_month, visit_count FROM visit_stats_by_month " +
+                "WHERE visit_month BETWEEN ? AND ? ORDER BY visit_month",
+            (row, rowNum) -> new MonthlyVisitCount(fromMonthKey(row.getInt(1)), row.getInt(2)),
+            toMonthKey(from), toMonthKey(to));
+    }
+
+    private void add(String update, String insert, int count, Object... key) {
+        Object[] args = new Object[key.length + 1];
+        args[0] = count;
+        System.arraycopy(key, 0, args, 1, key.length);
+        if (jdbcTemplate.update(update, args) == 0) {
+            try {
+                jdbcTemplate.update(insert, args);
+            } catch (DuplicateKeyException e) {
+                // another writer created the row meanwhile
+                jdbcTemplate.update(update, args);
+            }
+        }
+    }
+
+    /**
+     * Months are stored as {@code yyyyMM} integers, the same key the data scripts compute with
+     * {@code YEAR(visit_date) * 100 + MONTH(visit_date)}.
+     */
+    static int toMonthKey(Date date) {
+        LocalDate localDate = new java.sql.Date(date.getTime()).toLocalDate();
+        return localDate.getYear() * 100 + localDate.getMonthValue();
+    }
+
+    static int toMonthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    static YearMonth fromMonthKey(int key) {
+        return YearMonth.of(key / 100, key % 100);
+    }
+
+    private record PetMonth(int petId, int month) implements Comparable<PetMonth> {
+
+        @Override
+        public int compareTo(PetMonth other) {
+            int byPet = Integer.compare(petId, other.petId);
+            return byPet != 0 ? byPet : Integer.compare(month, other.month);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.visits.web;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.visits.config.VisitsProperties;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitBatchInserter;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Imports visits in bulk, from a JSON array or a newline-delimited JSON stream of visits carrying their
+ * {@code petId}. Records are read one at a time and written in JDBC batches of {@code visits.bulk.batch-size};
+ * invalid records are reported by their zero-based position in the input and do not stop the import.
+ */
+@RestController
+@Timed("petclinic.visit.bulk")
+class VisitBulkResource {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitBulkResource.class);
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int MAX_DESCRIPTION_LENGTH = 8192;
+
+    private final VisitBatchInserter visitBatchInserter;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    VisitBulkResource(VisitBatchInserter visitBatchInserter, ObjectMapper objectMapper, VisitsProperties properties) {
+        this.visitBatchInserter = visitBatchInserter;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, properties.bulk().batchSize());
+    }
+
+    @PostMapping(value = "pets/visits/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importArray(InputStream body) throws IOException {
+        BulkImport bulkImport = new BulkImport();
+        // a root-level array is unwrapped, so elements are read one by one instead of as a whole list
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                bulkImport.add(records.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            bulkImport.reject("Malformed JSON, the remaining records were not read: "
+                + e.getOriginalMessage());
+        }
+        return bulkImport.finish();
+    }
+
+    @PostMapping(value = "pets/visits/bulk", consumes = APPLICATION_NDJSON)
+    public BulkImportResult importNdjson(InputStream body) throws IOException {
+        BulkImport bulkImport = new BulkImport();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                bulkImport.add(objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                bulkImport.reject("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return bulkImport.finish();
+    }
+
+    record BulkImportResult(
+        int received,
+        int inserted,
+        List<Failure> failures
+    ) {
+    }
+
+    record Failure(
+        int index,
+        String message
+    ) {
+    }
+
+    /**
+     * State of one import request: the records read so far and the batch waiting to be written.
+     */
+    private final class BulkImport {
+
+        private int received;
+        private int inserted;
+        private final List<Failure> failures = new ArrayList<>();
+        private List<Visit> batch = new ArrayList<>(batchSize);
+        private List<Integer> batchIndexes = new ArrayList<>(batchSize);
+
+        void add(JsonNode record) {
+            int index = received++;
+            Visit visit;
+            try {
+                visit = objectMapper.treeToValue(record, Visit.class);
+            } catch (JsonProcessingException e) {
+                fail(index, e.getOriginalMessage());
+                return;
+            }
+            if (visit == null) {
+                fail(index, "Not a visit");
+            } else if (visit.getPetId() < 1) {
+                fail(index, "petId must be greater than 0");
+            } else if (visit.getDescription() != null && visit.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+                fail(index, "description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+            } else {
+                batch.add(visit);
+                batchIndexes.add(index);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+        }
+
+        /**
+         * Count a record that could not even be read.
+         */
+        void reject(String message) {
+            fail(received++, message);
+        }
+
+        private void fail(int index, String message) {
+            failures.add(new Failure(index, message));
+        }
+
+        BulkImportResult finish() {
+            flush();
+            failures.sort(Comparator.comparingInt(Failure::index));
+            log.info("Imported {} of {} visits", inserted, received);
+            return new BulkImportResult(received, inserted, failures);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Integer> indexes = batchIndexes;
+            inserted += visitBatchInserter.insert(batch,
+                (position, e) -> fail(indexes.get(position), e.getMostSpecificCause().getMessage()));
+            batch = new ArrayList<>(batchSize);
+            batchIndexes = new ArrayList<>(batchSize);
+        }
+    }
+}
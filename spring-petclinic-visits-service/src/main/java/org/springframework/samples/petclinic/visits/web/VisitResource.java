@@ -15,6 +15,7 @@
  */
 package org.springframework.samples.petclinic.visits.web;
 
+import java.time.LocalDate;
 import java.util.List;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
@@ -22,9 +23,15 @@ import jakarta.validation.constraints.Min;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.samples.petclinic.visits.model.Visit;
 import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.samples.petclinic.visits.model.VisitStatisticsRepository;
+import org.springframework.samples.petclinic.visits.model.VisitSummary;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -47,36 +54,113 @@ class VisitResource {
 
     private static final Logger log = LoggerFactory.getLogger(VisitResource.class);
 
+    private static final LocalDate OLDEST_VISIT_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_VISIT_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_LIMIT = 100;
+
     private final VisitRepository visitRepository;
+    private final VisitStatisticsRepository visitStatisticsRepository;
 
-    VisitResource(VisitRepository visitRepository) {
+    VisitResource(VisitRepository visitRepository, VisitStatisticsRepository visitStatisticsRepository) {
         this.visitRepository = visitRepository;
+        this.visitStatisticsRepository = visitStatisticsRepository;
     }
 
     @PostMapping("owners/*/pets/{petId}/visits")
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public Visit create(
         @Valid @RequestBody Visit visit,
         @PathVariable("petId") @Min(1) int petId) {
 
         visit.setPetId(petId);
         log.info("Saving visit {}", visit);
-        return visitRepository.save(visit);
+        Visit saved = visitRepository.save(visit);
+        visitStatisticsRepository.increment(List.of(saved));
+        return saved;
     }
 
+    /**
+     * Read the visits of a pet. When a date range, a limit or a keyset cursor (date and id of the last visit
+     * already read) is given, visits are returned most recent first. Visits without a date come last, and only
+     * when neither {@code from} nor {@code to} is given; the cursor of such a visit is its id alone.
+     */
     @GetMapping("owners/*/pets/{petId}/visits")
-    public List<Visit> read(@PathVariable("petId") @Min(1) int petId) {
-        return visitRepository.findByPetId(petId);
+    public List<Visit> read(
+        @PathVariable("petId") @Min(1) int petId,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "beforeDate", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate beforeDate,
+        @RequestParam(value = "beforeId", required = false) Integer beforeId) {
+
+        if (from == null && to == null && limit == null && beforeDate == null && beforeId == null) {
+            return visitRepository.findByPetId(petId);
+        }
+        return findByDateRange(petId, from, to, limit, beforeDate, beforeId);
     }
 
+    /**
+     * Read the visits of several pets. When a date range or a per-pet limit is given, each pet's visits are
+     * returned most recent first.
+     */
     @GetMapping("pets/visits")
-    public Visits read(@RequestParam("petId") List<Integer> petIds) {
-        final List<Visit> byPetIdIn = visitRepository.findByPetIdIn(petIds);
-        return new Visits(byPetIdIn);
+    public Visits read(
+        @RequestParam("petId") List<Integer> petIds,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+        @RequestParam(value = "limitPerPet", required = false) Integer limitPerPet) {
+
+        if (from == null && to == null && limitPerPet == null) {
+            final List<Visit> byPetIdIn = visitRepository.findByPetIdIn(petIds);
+            return new Visits(byPetIdIn);
+        }
+        return new Visits(visitRepository.findRecentByPetIdIn(
+            petIds,
+            java.sql.Date.valueOf(from != null ? from : OLDEST_VISIT_DATE),
+            java.sql.Date.valueOf(to != null ? to.plusDays(1) : LATEST_VISIT_DATE),
+            from == null && to == null ? Integer.MAX_VALUE : 0,
+            limitPerPet != null ? Math.max(1, Math.min(limitPerPet, MAX_LIMIT)) : Integer.MAX_VALUE));
+    }
+
+    @GetMapping("pets/visits/summary")
+    public VisitSummaries readSummaries(@RequestParam("petId") List<Integer> petIds) {
+        return new VisitSummaries(visitRepository.findSummariesByPetIdIn(petIds));
     }
 
     record Visits(
         List<Visit> items
     ) {
     }
+
+    record VisitSummaries(
+        List<VisitSummary> items
+    ) {
+    }
+
+    private List<Visit> findByDateRange(int petId, LocalDate from, LocalDate to, Integer limit,
+                                        LocalDate beforeDate, Integer beforeId) {
+        LocalDate before = to != null ? to.plusDays(1) : LATEST_VISIT_DATE;
+        int tieBreakId = 0;
+        // a keyset cursor only narrows the range: the earlier of the cursor and the end of the range applies
+        if (beforeDate != null && beforeDate.isBefore(before)) {
+            before = beforeDate;
+            tieBreakId = beforeId != null ? beforeId : 0;
+        }
+        // visits without a date fall outside any date range
+        int undatedBeforeId = from == null && to == null ? Integer.MAX_VALUE : 0;
+        if (undatedBeforeId != 0 && beforeDate == null && beforeId != null) {
+            // the cursor is an undated visit, so all dated visits were already read
+            before = OLDEST_VISIT_DATE;
+            tieBreakId = 0;
+            undatedBeforeId = beforeId;
+        }
+        return visitRepository.findByPetIdAndDateRange(
+            petId,
+            java.sql.Date.valueOf(from != null ? from : OLDEST_VISIT_DATE),
+            java.sql.Date.valueOf(before),
+            tieBreakId,
+            undatedBeforeId,
+            limit != null ? Limit.of(Math.max(1, Math.min(limit, MAX_LIMIT))) : Limit.unlimited());
+    }
 }
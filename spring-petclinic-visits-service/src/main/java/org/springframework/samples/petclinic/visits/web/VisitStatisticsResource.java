@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.visits.web;
+
+import java.time.YearMonth;
+import java.util.List;
+import jakarta.validation.constraints.Min;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.samples.petclinic.visits.model.MonthlyVisitCount;
+import org.springframework.samples.petclinic.visits.model.VisitStatisticsRepository;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Visit counts per month, for one pet or for the whole clinic, over an optional period of months
+ * ({@code from} and {@code to} as {@code yyyy-MM}, both inclusive). Served from the rollups kept by
+ * {@link VisitStatisticsRepository}.
+ */
+@RestController
+@Timed("petclinic.visit.stats")
+class VisitStatisticsResource {
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(1900, 1);
+    private static final YearMonth LAST_MONTH = YearMonth.of(9999, 12);
+
+    private final VisitStatisticsRepository visitStatisticsRepository;
+
+    VisitStatisticsResource(VisitStatisticsRepository visitStatisticsRepository) {
+        this.visitStatisticsRepository = visitStatisticsRepository;
+    }
+
+    @GetMapping("owners/*/pets/{petId}/visits/stats")
+    public PetVisitStatistics readForPet(
+        @PathVariable("petId") @Min(1) int petId,
+        @RequestParam(value = "from", required = false) YearMonth from,
+        @RequestParam(value = "to", required = false) YearMonth to) {
+
+        List<MonthlyVisitCount> months = visitStatisticsRepository.findByPetId(petId,
+            from != null ? from : FIRST_MONTH, to != null ? to : LAST_MONTH);
+        return new PetVisitStatistics(petId, total(months), months);
+    }
+
+    @GetMapping("visits/stats")
+    public VisitStatistics read(
+        @RequestParam(value = "from", required = false) YearMonth from,
+        @RequestParam(value = "to", required = false) YearMonth to) {
+
+        List<MonthlyVisitCount> months = visitStatisticsRepository.findByMonth(
+            from != null ? from : FIRST_MONTH, to != null ? to : LAST_MONTH);
+        return new VisitStatistics(total(months), months);
+    }
+
+    record PetVisitStatistics(
+        int petId,
+        int total,
+        List<MonthlyVisitCount> months
+    ) {
+    }
+
+    record VisitStatistics(
+        int total,
+        List<MonthlyVisitCount> months
+    ) {
+    }
+
+    private static int total(List<MonthlyVisitCount> months) {
+        return months.stream().mapToInt(MonthlyVisitCount::count).sum();
+    }
+}
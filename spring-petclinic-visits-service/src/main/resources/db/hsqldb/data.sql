@@ -2,3 +2,10 @@ INSERT INTO visits VALUES (1, 7, '2013-01-01', 'rabies shot');
 INSERT INTO visits VALUES (2, 8, '2013-01-02', 'rabies shot');
 INSERT INTO visits VALUES (3, 8, '2013-01-03', 'neutered');
 INSERT INTO visits VALUES (4, 7, '2013-01-04', 'spayed');
+
+INSERT INTO visit_stats_by_pet (pet_id, visit_month, visit_count)
+  SELECT pet_id, YEAR(visit_date) * 100 + MONTH(visit_date), COUNT(*) FROM visits
+  WHERE visit_date IS NOT NULL GROUP BY pet_id, YEAR(visit_date) * 100 + MONTH(visit_date);
+INSERT INTO visit_stats_by_month (visit_month, visit_count)
+  SELECT YEAR(visit_date) * 100 + MONTH(visit_date), COUNT(*) FROM visits
+  WHERE visit_date IS NOT NULL GROUP BY YEAR(visit_date) * 100 + MONTH(visit_date);
@@ -1,3 +1,5 @@
+DROP TABLE visit_stats_by_month IF EXISTS;
+DROP TABLE visit_stats_by_pet IF EXISTS;
 DROP TABLE visits IF EXISTS;
 
 CREATE TABLE visits (
@@ -7,4 +9,16 @@ CREATE TABLE visits (
   description VARCHAR(8192)
 );
 
-CREATE INDEX visits_pet_id ON visits (pet_id);
+CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date);
+
+CREATE TABLE visit_stats_by_pet (
+  pet_id      INTEGER NOT NULL,
+  visit_month INTEGER NOT NULL,
+  visit_count INTEGER NOT NULL,
+  PRIMARY KEY (pet_id, visit_month)
+);
+
+CREATE TABLE visit_stats_by_month (
+  visit_month INTEGER NOT NULL PRIMARY KEY,
+  visit_count INTEGER NOT NULL
+);
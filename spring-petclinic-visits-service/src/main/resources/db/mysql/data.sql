@@ -2,3 +2,10 @@ INSERT IGNORE INTO visits VALUES (1, 7, '2010-03-04', 'rabies shot');
 INSERT IGNORE INTO visits VALUES (2, 8, '2011-03-04', 'rabies shot');
 INSERT IGNORE INTO visits VALUES (3, 8, '2009-06-04', 'neutered');
 INSERT IGNORE INTO visits VALUES (4, 7, '2008-09-04', 'spayed');
+
+INSERT IGNORE INTO visit_stats_by_pet (pet_id, visit_month, visit_count)
+  SELECT pet_id, YEAR(visit_date) * 100 + MONTH(visit_date), COUNT(*) FROM visits
+  WHERE visit_date IS NOT NULL GROUP BY pet_id, YEAR(visit_date) * 100 + MONTH(visit_date);
+INSERT IGNORE INTO visit_stats_by_month (visit_month, visit_count)
+  SELECT YEAR(visit_date) * 100 + MONTH(visit_date), COUNT(*) FROM visits
+  WHERE visit_date IS NOT NULL GROUP BY YEAR(visit_date) * 100 + MONTH(visit_date);
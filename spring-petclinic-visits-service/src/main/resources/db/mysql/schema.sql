@@ -8,5 +8,18 @@ CREATE TABLE IF NOT EXISTS visits (
   pet_id INT(4) UNSIGNED NOT NULL,
   visit_date DATE,
   description VARCHAR(8192),
+  INDEX visits_pet_id_visit_date (pet_id, visit_date),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS visit_stats_by_pet (
+  pet_id INT(4) UNSIGNED NOT NULL,
+  visit_month INT(6) UNSIGNED NOT NULL,
+  visit_count INT UNSIGNED NOT NULL,
+  PRIMARY KEY (pet_id, visit_month)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS visit_stats_by_month (
+  visit_month INT(6) UNSIGNED NOT NULL PRIMARY KEY,
+  visit_count INT UNSIGNED NOT NULL
+) engine=InnoDB;
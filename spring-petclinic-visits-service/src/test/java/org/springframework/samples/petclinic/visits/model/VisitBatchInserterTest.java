@@ -0,0 +1,60 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@JdbcTest
+@Import({VisitBatchInserter.class, VisitStatisticsRepository.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitBatchInserterTest {
+
+    @Autowired
+    private VisitBatchInserter visitBatchInserter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldInsertAllVisitsOfABatch() {
+        List<Visit> visits = List.of(visit(100, "rabies shot"), visit(100, "neutered"), visit(100, "spayed"));
+
+        int inserted = visitBatchInserter.insert(visits, (index, e) -> {
+            throw e;
+        });
+
+        assertEquals(3, inserted);
+        assertEquals(3, countVisits(100));
+    }
+
+    @Test
+    void shouldReportOnlyTheRejectedVisitsOfAFailedBatch() {
+        List<Visit> visits = List.of(visit(101, "rabies shot"), visit(101, "x".repeat(8193)), visit(101, "spayed"));
+        List<Integer> failed = new ArrayList<>();
+
+        int inserted = visitBatchInserter.insert(visits, (index, e) -> failed.add(index));
+
+        assertEquals(2, inserted);
+        assertEquals(List.of(1), failed);
+        assertEquals(2, countVisits(101));
+    }
+
+    private int countVisits(int petId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE pet_id = ?", Integer.class, petId);
+    }
+
+    private static Visit visit(int petId, String description) {
+        return Visit.VisitBuilder.aVisit().petId(petId).description(description).date(new java.util.Date()).build();
+    }
+}
@@ -0,0 +1,120 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures visit import throughput in visits per second on an in-memory HSQLDB visits table: one insert and
+ * commit per visit, which is what saving through JPA amounts to with {@code GenerationType.IDENTITY}, against
+ * {@link VisitBatchInserter} with batches of {@code batchSize}. Run with the test classpath, e.g. from the IDE via
+ * {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VisitBulkInsertBenchmark {
+
+    private static final int VISITS = 10_000;
+
+    @Param({"50", "500", "5000"})
+    private int batchSize;
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private VisitBatchInserter visitBatchInserter;
+
+    private List<Visit> visits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:hsqldb:mem:visits-bulk-benchmark-" + batchSize, "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE visits (id INTEGER IDENTITY PRIMARY KEY, pet_id INTEGER NOT NULL, " +
+            "visit_date DATE, description VARCHAR(8192))");
+        jdbcTemplate.execute("CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date)");
+        jdbcTemplate.execute("CREATE TABLE visit_stats_by_pet (pet_id INTEGER NOT NULL, visit_month INTEGER NOT NULL, " +
+            "visit_count INTEGER NOT NULL, PRIMARY KEY (pet_id, visit_month))");
+        jdbcTemplate.execute("CREATE TABLE visit_stats_by_month (visit_month INTEGER NOT NULL PRIMARY KEY, " +
+            "visit_count INTEGER NOT NULL)");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        visitBatchInserter = new VisitBatchInserter(jdbcTemplate, transactionManager,
+            new VisitStatisticsRepository(jdbcTemplate));
+        visits = new ArrayList<>(VISITS);
+        for (int i = 0; i < VISITS; i++) {
+            visits.add(Visit.VisitBuilder.aVisit().petId(i % 1000 + 1).date(new Date()).description("rabies shot").build());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE visits");
+        jdbcTemplate.execute("TRUNCATE TABLE visit_stats_by_pet");
+        jdbcTemplate.execute("TRUNCATE TABLE visit_stats_by_month");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VISITS)
+    public void singleInserts() {
+        for (Visit visit : visits) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(VisitBatchInserter.INSERT_VISIT,
+                visit.getPetId(), new java.sql.Date(visit.getDate().getTime()), visit.getDescription()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VISITS)
+    public int batchInserts() {
+        int inserted = 0;
+        for (int from = 0; from < VISITS; from += batchSize) {
+            inserted += visitBatchInserter.insert(visits.subList(from, Math.min(from + batchSize, VISITS)), (index, e) -> {
+                throw e;
+            });
+        }
+        return inserted;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VisitBulkInsertBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
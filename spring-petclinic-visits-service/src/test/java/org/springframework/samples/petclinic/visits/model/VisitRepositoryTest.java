@@ -0,0 +1,91 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class VisitRepositoryTest {
+
+    private static final Date OLDEST = Date.valueOf("1900-01-01");
+    private static final Date LATEST = Date.valueOf("9999-12-31");
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findByPetIdAndDateRange_shouldReturnMostRecentFirst() {
+        List<Visit> visits = visitRepository.findByPetIdAndDateRange(8, OLDEST, LATEST, 0, Integer.MAX_VALUE, Limit.of(1));
+
+        assertEquals(List.of(3), ids(visits));
+    }
+
+    @Test
+    void findByPetIdAndDateRange_shouldContinueAfterKeysetCursor() {
+        List<Visit> visits = visitRepository.findByPetIdAndDateRange(8, OLDEST, Date.valueOf("2013-01-03"), 3, Integer.MAX_VALUE, Limit.of(1));
+
+        assertEquals(List.of(2), ids(visits));
+    }
+
+    @Test
+    void findByPetIdAndDateRange_shouldApplyLowerBound() {
+        List<Visit> visits = visitRepository.findByPetIdAndDateRange(7, Date.valueOf("2013-01-02"), LATEST, 0, 0, Limit.unlimited());
+
+        assertEquals(List.of(4), ids(visits));
+    }
+
+    @Test
+    void findByPetIdAndDateRange_shouldReturnUndatedVisitsLast() {
+        Visit undated = visitRepository.save(Visit.VisitBuilder.aVisit().petId(8).description("check-up").build());
+
+        assertEquals(List.of(3, 2, undated.getId()),
+            ids(visitRepository.findByPetIdAndDateRange(8, OLDEST, LATEST, 0, Integer.MAX_VALUE, Limit.unlimited())));
+        assertEquals(List.of(undated.getId()),
+            ids(visitRepository.findByPetIdAndDateRange(8, OLDEST, Date.valueOf("2013-01-02"), 2, Integer.MAX_VALUE, Limit.unlimited())));
+        assertEquals(List.of(3, 2),
+            ids(visitRepository.findByPetIdAndDateRange(8, OLDEST, LATEST, 0, 0, Limit.unlimited())));
+    }
+
+    @Test
+    void findRecentByPetIdIn_shouldLimitEachPetInOneStatement() {
+        Visit undated = visitRepository.save(Visit.VisitBuilder.aVisit().petId(8).description("check-up").build());
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Visit> visits = visitRepository.findRecentByPetIdIn(List.of(7, 8, 9), OLDEST, LATEST, Integer.MAX_VALUE, 2);
+
+        assertEquals(List.of(4, 1, 3, 2), ids(visits));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(4, 1, 3, 2, undated.getId()),
+            ids(visitRepository.findRecentByPetIdIn(List.of(7, 8), OLDEST, LATEST, Integer.MAX_VALUE, 3)));
+        assertEquals(List.of(4, 3),
+            ids(visitRepository.findRecentByPetIdIn(List.of(7, 8), Date.valueOf("2013-01-03"), LATEST, 0, 3)));
+    }
+
+    @Test
+    void findSummariesByPetIdIn_shouldReturnVisitsOfRequestedPets() {
+        List<VisitSummary> summaries = visitRepository.findSummariesByPetIdIn(List.of(7));
+
+        assertEquals(2, summaries.size());
+        summaries.forEach(summary -> assertEquals(7, summary.petId()));
+    }
+
+    private static List<Integer> ids(List<Visit> visits) {
+        return visits.stream().map(Visit::getId).toList();
+    }
+}
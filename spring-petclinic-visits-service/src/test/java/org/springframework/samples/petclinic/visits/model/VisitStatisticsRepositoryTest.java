@@ -0,0 +1,60 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@JdbcTest
+@Import(VisitStatisticsRepository.class)
+@ActiveProfiles("test")
+class VisitStatisticsRepositoryTest {
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(1900, 1);
+    private static final YearMonth LAST_MONTH = YearMonth.of(9999, 12);
+
+    @Autowired
+    private VisitStatisticsRepository visitStatisticsRepository;
+
+    @Test
+    void shouldRollUpInitialVisits() {
+        assertEquals(List.of(new MonthlyVisitCount(YearMonth.of(2013, 1), 2)),
+            visitStatisticsRepository.findByPetId(7, FIRST_MONTH, LAST_MONTH));
+        assertEquals(List.of(new MonthlyVisitCount(YearMonth.of(2013, 1), 4)),
+            visitStatisticsRepository.findByMonth(YearMonth.of(2013, 1), YearMonth.of(2013, 1)));
+    }
+
+    @Test
+    void shouldIncrementExistingAndNewMonths() {
+        visitStatisticsRepository.increment(List.of(
+            visit(7, "2013-01-20"),
+            visit(7, "2013-02-01"),
+            visit(7, "2013-02-14")));
+
+        assertEquals(
+            List.of(new MonthlyVisitCount(YearMonth.of(2013, 1), 3), new MonthlyVisitCount(YearMonth.of(2013, 2), 2)),
+            visitStatisticsRepository.findByPetId(7, FIRST_MONTH, LAST_MONTH));
+        assertEquals(
+            List.of(new MonthlyVisitCount(YearMonth.of(2013, 1), 5), new MonthlyVisitCount(YearMonth.of(2013, 2), 2)),
+            visitStatisticsRepository.findByMonth(YearMonth.of(2013, 1), YearMonth.of(2013, 2)));
+    }
+
+    @Test
+    void shouldRestrictToPeriod() {
+        visitStatisticsRepository.increment(List.of(visit(8, "2013-03-01")));
+
+        assertEquals(List.of(new MonthlyVisitCount(YearMonth.of(2013, 3), 1)),
+            visitStatisticsRepository.findByPetId(8, YearMonth.of(2013, 2), YearMonth.of(2013, 12)));
+    }
+
+    private static Visit visit(int petId, String date) {
+        return Visit.VisitBuilder.aVisit().petId(petId).date(Date.valueOf(date)).build();
+    }
+}
@@ -0,0 +1,120 @@
+package org.springframework.samples.petclinic.visits.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading full visit rows (as {@link VisitRepository#findByPetIdIn} does) with the description-less
+ * projection of {@link VisitRepository#findSummariesByPetIdIn}, on an in-memory HSQLDB visits table using the
+ * (pet_id, visit_date) index. Run with the test classpath, e.g. from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VisitsByPetQueryBenchmark {
+
+    private static final int VISITS_PER_PET = 10;
+
+    private static final int PETS_PER_OWNER_PAGE = 20;
+
+    private static final String DESCRIPTION = "x".repeat(512);
+
+    @Param({"10000", "100000", "1000000"})
+    private int visits;
+
+    private Connection connection;
+
+    private String petIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:visits-benchmark-" + visits, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE visits (id INTEGER IDENTITY PRIMARY KEY, pet_id INTEGER NOT NULL, " +
+                "visit_date DATE, description VARCHAR(8192))");
+            statement.execute("CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)")) {
+            LocalDate firstVisit = LocalDate.of(2000, 1, 1);
+            for (int i = 0; i < visits; i++) {
+                insert.setInt(1, i / VISITS_PER_PET);
+                insert.setDate(2, Date.valueOf(firstVisit.plusDays(i % 5000)));
+                insert.setString(3, DESCRIPTION);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        int firstPet = visits / VISITS_PER_PET / 2;
+        StringBuilder ids = new StringBuilder();
+        for (int petId = firstPet; petId < firstPet + PETS_PER_OWNER_PAGE; petId++) {
+            ids.append(ids.isEmpty() ? "" : ",").append(petId);
+        }
+        petIds = ids.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public void fullVisits(Blackhole blackhole) throws SQLException {
+        query("SELECT id, pet_id, visit_date, description FROM visits WHERE pet_id IN (" + petIds + ")", 4, blackhole);
+    }
+
+    @Benchmark
+    public void visitSummaries(Blackhole blackhole) throws SQLException {
+        query("SELECT id, pet_id, visit_date FROM visits WHERE pet_id IN (" + petIds + ")", 3, blackhole);
+    }
+
+    private void query(String sql, int columns, Blackhole blackhole) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            while (rows.next()) {
+                for (int column = 1; column <= columns; column++) {
+                    blackhole.consume(rows.getObject(column));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VisitsByPetQueryBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
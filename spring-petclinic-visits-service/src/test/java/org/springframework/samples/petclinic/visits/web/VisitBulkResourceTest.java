@@ -0,0 +1,90 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.visits.model.Visit;
+import org.springframework.samples.petclinic.visits.model.VisitBatchInserter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(value = VisitBulkResource.class, properties = "visits.bulk.batch-size=2")
+@ActiveProfiles("test")
+class VisitBulkResourceTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    VisitBatchInserter visitBatchInserter;
+
+    @Test
+    void shouldImportJsonArrayInBatches() throws Exception {
+        List<List<Visit>> batches = new ArrayList<>();
+        given(visitBatchInserter.insert(anyList(), any())).willAnswer(invocation -> {
+            List<Visit> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return batch.size();
+        });
+
+        mvc.perform(post("/pets/visits/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"petId": 7, "date": "2024-03-01", "description": "rabies shot"},
+                     {"petId": 8, "date": "2024-03-02"},
+                     {"petId": 0, "date": "2024-03-03"},
+                     {"petId": 9, "date": "2024-03-04"}]
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(4))
+            .andExpect(jsonPath("$.inserted").value(3))
+            .andExpect(jsonPath("$.failures[0].index").value(2));
+
+        assertEquals(2, batches.size());
+        assertEquals(List.of(7, 8), batches.get(0).stream().map(Visit::getPetId).toList());
+        assertEquals(List.of(9), batches.get(1).stream().map(Visit::getPetId).toList());
+    }
+
+    @Test
+    void shouldReportMalformedAndRejectedNdjsonRecords() throws Exception {
+        given(visitBatchInserter.insert(anyList(), any())).willAnswer(invocation -> {
+            List<Visit> batch = invocation.getArgument(0);
+            BiConsumer<Integer, DataAccessException> failureHandler = invocation.getArgument(1);
+            failureHandler.accept(0, new DataIntegrityViolationException("unknown pet"));
+            return batch.size() - 1;
+        });
+
+        mvc.perform(post("/pets/visits/bulk")
+                .contentType(VisitBulkResource.APPLICATION_NDJSON)
+                .content("""
+                    {"petId": 7, "date": "2024-03-01"}
+                    {"petId": 8, "date":
+                    {"petId": 9, "date": "2024-03-04"}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(3))
+            .andExpect(jsonPath("$.inserted").value(1))
+            .andExpect(jsonPath("$.failures[0].index").value(0))
+            .andExpect(jsonPath("$.failures[0].message").value("unknown pet"))
+            .andExpect(jsonPath("$.failures[1].index").value(1));
+    }
+}
@@ -5,16 +5,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.visits.model.Visit;
 import org.springframework.samples.petclinic.visits.model.VisitRepository;
+import org.springframework.samples.petclinic.visits.model.VisitStatisticsRepository;
+import org.springframework.samples.petclinic.visits.model.VisitSummary;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.Date;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
 
 import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +41,23 @@ class VisitResourceTest {
     @MockBean
     VisitRepository visitRepository;
 
+    @MockBean
+    VisitStatisticsRepository visitStatisticsRepository;
+
+    @Test
+    void shouldCountCreatedVisitInStatistics() throws Exception {
+        Visit saved = Visit.VisitBuilder.aVisit().id(5).petId(111).build();
+        given(visitRepository.save(any(Visit.class))).willReturn(saved);
+
+        mvc.perform(post("/owners/1/pets/111/visits")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"date\": \"2024-03-01\", \"description\": \"rabies shot\"}"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(5));
+
+        verify(visitStatisticsRepository).increment(List.of(saved));
+    }
+
     @Test
     void shouldFetchVisits() throws Exception {
         given(visitRepository.findByPetIdIn(asList(111, 222)))
@@ -58,4 +87,47 @@ class VisitResourceTest {
             .andExpect(jsonPath("$.items[1].petId").value(222))
             .andExpect(jsonPath("$.items[2].petId").value(222));
     }
+
+    @Test
+    void shouldFetchMostRecentVisitsPerPet() throws Exception {
+        given(visitRepository.findRecentByPetIdIn(eq(asList(111, 222)), any(), any(), eq(Integer.MAX_VALUE), eq(1)))
+            .willReturn(List.of(
+                Visit.VisitBuilder.aVisit().id(4).petId(111).build(),
+                Visit.VisitBuilder.aVisit().id(5).petId(222).build()));
+
+        mvc.perform(get("/pets/visits?petId=111,222&limitPerPet=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(4))
+            .andExpect(jsonPath("$.items[1].id").value(5));
+    }
+
+    @Test
+    void shouldApplyTheEarlierOfRangeEndAndKeysetCursor() throws Exception {
+        mvc.perform(get("/owners/1/pets/111/visits?to=2013-01-02&beforeDate=2013-01-04&beforeId=4&limit=5"))
+            .andExpect(status().isOk());
+        mvc.perform(get("/owners/1/pets/111/visits?to=2013-01-05&beforeDate=2013-01-04&beforeId=4&limit=5"))
+            .andExpect(status().isOk());
+
+        verify(visitRepository).findByPetIdAndDateRange(eq(111), any(), eq(Date.valueOf("2013-01-03")), eq(0), eq(0), eq(Limit.of(5)));
+        verify(visitRepository).findByPetIdAndDateRange(eq(111), any(), eq(Date.valueOf("2013-01-04")), eq(4), eq(0), eq(Limit.of(5)));
+    }
+
+    @Test
+    void shouldFetchVisitSummariesWithoutDescription() throws Exception {
+        given(visitRepository.findSummariesByPetIdIn(asList(111, 222)))
+            .willReturn(
+                asList(
+                    new VisitSummary(1, 111, new GregorianCalendar(2024, Calendar.MARCH, 1, 12, 0).getTime()),
+                    new VisitSummary(2, 222, new GregorianCalendar(2024, Calendar.MARCH, 2, 12, 0).getTime())
+                )
+            );
+
+        mvc.perform(get("/pets/visits/summary?petId=111,222"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(1))
+            .andExpect(jsonPath("$.items[0].petId").value(111))
+            .andExpect(jsonPath("$.items[0].date").value("2024-03-01"))
+            .andExpect(jsonPath("$.items[1].petId").value(222))
+            .andExpect(jsonPath("$.items[0].description").doesNotExist());
+    }
 }
@@ -0,0 +1,59 @@
+package org.springframework.samples.petclinic.visits.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.samples.petclinic.visits.model.MonthlyVisitCount;
+import org.springframework.samples.petclinic.visits.model.VisitStatisticsRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(VisitStatisticsResource.class)
+@ActiveProfiles("test")
+class VisitStatisticsResourceTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    VisitStatisticsRepository visitStatisticsRepository;
+
+    @Test
+    void shouldReadPetStatistics() throws Exception {
+        given(visitStatisticsRepository.findByPetId(7, YearMonth.of(2024, 1), YearMonth.of(2024, 12)))
+            .willReturn(List.of(
+                new MonthlyVisitCount(YearMonth.of(2024, 3), 2),
+                new MonthlyVisitCount(YearMonth.of(2024, 5), 1)));
+
+        mvc.perform(get("/owners/1/pets/7/visits/stats?from=2024-01&to=2024-12"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.petId").value(7))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.months[0].month").value("2024-03"))
+            .andExpect(jsonPath("$.months[0].count").value(2));
+    }
+
+    @Test
+    void shouldReadClinicStatisticsOverAllMonthsByDefault() throws Exception {
+        given(visitStatisticsRepository.findByMonth(any(), any()))
+            .willReturn(List.of(new MonthlyVisitCount(YearMonth.of(2013, 1), 4)));
+
+        mvc.perform(get("/visits/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(4))
+            .andExpect(jsonPath("$.months[0].month").value("2013-01"));
+    }
+}